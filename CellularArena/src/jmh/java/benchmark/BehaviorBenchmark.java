@@ -0,0 +1,72 @@
+package benchmark;
+
+import com.sun.management.ThreadMXBean;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One behavior choosing a command for a root on a loaded mid-game turn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BehaviorBenchmark {
+    // Scoring a candidate must not allocate. A rescore of every candidate is left the command it returns and a few
+    // small per call objects, well under this however many candidates the map has.
+    private static final long ALLOCATION_BUDGET_BYTES = 2048;
+    private static final int ALLOCATION_SAMPLES = 100;
+
+    @Param
+    public MapShape shape;
+
+    @Param({"AttackBehavior", "CreateNewRootBehavior", "CreateSporerBehavior", "BuildHarvesterBehavior", "ExpandToSpaceBehavior"})
+    public String behaviorName;
+
+    private BotDriver bot;
+    private String turnInput;
+    private Object behavior;
+    private int rootId;
+
+    @Setup
+    public void setup() {
+        bot = new BotDriver(shape);
+        turnInput = shape.turnInput(TurnBenchmark.ORGAN_COUNT);
+        behavior = bot.behavior(behaviorName);
+    }
+
+    // Behaviors keep their scored candidates between turns, reload and forget them so each invocation scores them all
+    @Setup(Level.Invocation)
+    public void loadTurn() {
+        bot.readTurn(turnInput);
+        bot.postTurnLoad();
+        bot.clearCandidates(behavior);
+        rootId = bot.myFirstRootId();
+    }
+
+    @Benchmark
+    public Object getCommand() {
+        return bot.getCommand(behavior, rootId);
+    }
+
+    // Runs after measurement, so the JIT has compiled the scoring code and removed what escape analysis can
+    @TearDown(Level.Trial)
+    public void checkAllocation() {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBytes = 0;
+        for (int i = 0; i < ALLOCATION_SAMPLES; i++) {
+            loadTurn();
+            long before = threads.getCurrentThreadAllocatedBytes();
+            getCommand();
+            allocatedBytes += threads.getCurrentThreadAllocatedBytes() - before;
+        }
+        if (allocatedBytes / ALLOCATION_SAMPLES > ALLOCATION_BUDGET_BYTES) {
+            throw new IllegalStateException(String.format("%s allocated %d bytes per command on %s, over the %d byte budget",
+                    behaviorName, allocatedBytes / ALLOCATION_SAMPLES, shape, ALLOCATION_BUDGET_BYTES));
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Drives one Player through its private turn steps. Player lives in the default package so the bot stays a single
+ * submittable file, and JMH won't generate benchmarks there, so everything goes through method handles. They are
+ * looked up once, when the first benchmark's setup loads this class, and held in static finals so the JIT can inline
+ * through them. Measured calls pay no reflection, access checks or boxing.
+ */
+public class BotDriver {
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+
+    private static final Class<?> PLAYER = type("Player"), INPUT_READER = type("Player$InputReader"),
+            GRID = type("Player$Grid"), PATHING = type("Player$Pathing"), ENTITY = type("Player$Entity"),
+            BEHAVIOR = type("Player$Behavior"), COMMAND = type("Player$Command"), CANDIDATE_QUEUE = type("Player$CandidateQueue");
+
+    private static final MethodHandle NEW_PLAYER = constructor(PLAYER, InputStream.class, PrintStream.class);
+    private static final MethodHandle NEW_INPUT_READER = constructor(INPUT_READER, InputStream.class);
+    private static final MethodHandle INIT = method(PLAYER, "init", void.class, int.class, int.class);
+    private static final MethodHandle READ_TURN = method(PLAYER, "readTurn", int.class, INPUT_READER);
+    private static final MethodHandle PLAY_TURN = method(PLAYER, "playTurn", List.class, int.class);
+    private static final MethodHandle POST_TURN_LOAD = method(PLAYER, "postTurnLoad", void.class);
+    private static final MethodHandle GET_COMMANDS = method(PLAYER, "getCommands", List.class, int.class);
+    private static final MethodHandle GENERATE_PATHS = method(PATHING, "generatePaths", void.class);
+    private static final MethodHandle GENERATE_PATHS_FROM = method(PATHING, "generatePaths", void.class, ENTITY);
+    private static final MethodHandle ENTITY_AT = method(GRID, "entityAt", ENTITY, int.class, int.class);
+    private static final MethodHandle GET_ROOT_ID = method(ENTITY, "getRootId", int.class);
+    private static final MethodHandle GET_COMMAND = method(BEHAVIOR, "getCommand", COMMAND, int.class);
+    private static final MethodHandle CLEAR_CANDIDATES = method(CANDIDATE_QUEUE, "clear", void.class);
+    private static final MethodHandle SET_TURN = setter(PLAYER, "turn", int.class);
+    private static final MethodHandle GET_GRID = getter(PLAYER, "grid", GRID);
+    private static final MethodHandle GET_PATHING = getter(PLAYER, "pathing", PATHING);
+    private static final MethodHandle GET_BEHAVIORS = getter(PLAYER, "behaviors", List.class);
+    private static final MethodHandle GET_MY_ROOTS = getter(PLAYER, "myRoots", List.class);
+
+    private final Object player;
+    private final MapShape shape;
+
+    public BotDriver(MapShape shape) {
+        this.shape = shape;
+        // The bot logs to stderr as it plays, keep benchmark output readable
+        System.setErr(DISCARD);
+        try {
+            player = NEW_PLAYER.invokeExact((InputStream) InputStream.nullInputStream(), DISCARD);
+            INIT.invokeExact(player, shape.width(), shape.height());
+            // Turn 1 builds the path tables and behaviors
+            List<?> commands = (List<?>) PLAY_TURN.invokeExact(player, (int) READ_TURN.invokeExact(player, inputReader(shape.turnInput(0))));
+        } catch (Throwable e) {
+            throw failure(e);
+        }
+    }
+
+    public MapShape shape() {
+        return shape;
+    }
+
+    // Load a turn's input as turn 2, so repeated loads don't drift into late game merit
+    public int readTurn(String turnInput) {
+        try {
+            SET_TURN.invokeExact(player, 1);
+            return (int) READ_TURN.invokeExact(player, inputReader(turnInput));
+        } catch (Throwable e) {
+            throw failure(e);
+        }
+    }
+
+    private static Object inputReader(String turnInput) throws Throwable {
+        return NEW_INPUT_READER.invokeExact((InputStream) new ByteArrayInputStream(turnInput.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    public void postTurnLoad() {
+        try {
+            POST_TURN_LOAD.invokeExact(player);
+        } catch (Throwable e) {
+            throw failure(e);
+        }
+    }
+
+    public List<?> getCommands(int commandsNeeded) {
+        try {
+            return (List<?>) GET_COMMANDS.invokeExact(player, commandsNeeded);
+        } catch (Throwable e) {
+            throw failure(e);
+        }
+    }
+
+    public void generatePaths() {
+        try {
+            GENERATE_PATHS.invokeExact(pathing());
+        } catch (Throwable e) {
+            throw failure(e);
+        }
+    }
+
+    public void generatePaths(Object entity) {
+        try {
+            GENERATE_PATHS_FROM.invokeExact(pathing(), entity);
+        } catch (Throwable e) {
+            throw failure(e);
+        }
+    }
+
+    private Object pathing() throws Throwable {
+        return GET_PATHING.invokeExact(player);
+    }
+
+    public Object tile(int x, int y) {
+        try {
+            return ENTITY_AT.invokeExact(GET_GRID.invokeExact(player), x, y);
+        } catch (Throwable e) {
+            throw failure(e);
+        }
+    }
+
+    public Object behavior(String name) {
+        try {
+            for (Object behavior : (List<?>) GET_BEHAVIORS.invokeExact(player)) {
+                if (behavior.getClass().getSimpleName().equals(name)) {
+                    return behavior;
+                }
+            }
+        } catch (Throwable e) {
+            throw failure(e);
+        }
+        throw new IllegalArgumentException("No behavior " + name);
+    }
+
+    public Object getCommand(Object behavior, int rootId) {
+        try {
+            return GET_COMMAND.invokeExact(behavior, rootId);
+        } catch (Throwable e) {
+            throw failure(e);
+        }
+    }
+
+    // Forget the behavior's scored candidates, if it keeps any, so its next command scores every candidate
+    public void clearCandidates(Object behavior) {
+        if (!CANDIDATE_QUEUE.isInstance(behavior)) {
+            return;
+        }
+        try {
+            CLEAR_CANDIDATES.invokeExact(behavior);
+        } catch (Throwable e) {
+            throw failure(e);
+        }
+    }
+
+    public int myFirstRootId() {
+        try {
+            Object root = ((List<?>) GET_MY_ROOTS.invokeExact(player)).get(0);
+            return (int) GET_ROOT_ID.invokeExact(root);
+        } catch (Throwable e) {
+            throw failure(e);
+        }
+    }
+
+    private static RuntimeException failure(Throwable e) {
+        if (e instanceof Error error) {
+            throw error;
+        }
+        return e instanceof RuntimeException runtime ? runtime : new IllegalStateException(e);
+    }
+
+    private static Class<?> type(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MethodHandles.Lookup lookup(Class<?> type) throws IllegalAccessException {
+        return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+    }
+
+    // Player's private types are Object in the handles, so call sites can use invokeExact without naming them
+    private static MethodHandle generic(MethodHandle handle) {
+        MethodType type = handle.type();
+        for (int i = 0; i < type.parameterCount(); i++) {
+            if (type.parameterType(i).getNestHost() == PLAYER) {
+                type = type.changeParameterType(i, Object.class);
+            }
+        }
+        return handle.asType(type.returnType().getNestHost() == PLAYER ? type.changeReturnType(Object.class) : type);
+    }
+
+    private static MethodHandle constructor(Class<?> type, Class<?>... parameters) {
+        try {
+            return generic(lookup(type).findConstructor(type, MethodType.methodType(void.class, parameters)));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MethodHandle method(Class<?> type, String name, Class<?> returnType, Class<?>... parameters) {
+        try {
+            return generic(lookup(type).findVirtual(type, name, MethodType.methodType(returnType, parameters)));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MethodHandle getter(Class<?> type, String name, Class<?> fieldType) {
+        try {
+            return generic(lookup(type).findGetter(type, name, fieldType));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MethodHandle setter(Class<?> type, String name, Class<?> fieldType) {
+        try {
+            return generic(lookup(type).findSetter(type, name, fieldType));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
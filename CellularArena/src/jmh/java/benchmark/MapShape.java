@@ -0,0 +1,123 @@
+package benchmark;
+
+import java.util.*;
+
+/**
+ * Representative maps for benchmarking, modeled on the interesting game seeds in Analysis.txt. The seeds drive our own
+ * generator, so the maps have the same character as those games (open or closed, small or large, sparse or plentiful)
+ * without being copies of them.
+ */
+public enum MapShape {
+    // Resources far away, 2 root jumps needed
+    OPEN(18, 9, .05, .06, -3194626388501203500L),
+    // Closed map, many resources, race for middle
+    CLOSED(18, 9, .3, .16, -562798768321121100L),
+    // Large sparse map, running out
+    LARGE_SPARSE(24, 12, .12, .04, 4881395176070566000L),
+    // Large plentiful map
+    LARGE_PLENTIFUL(24, 12, .12, .22, 2855407559329172500L),
+    // Small map, the organisms grow into each other so tentacles have enemies to score
+    TOUCHING(10, 5, .05, .1, 6812241268562684000L);
+
+    private static final String[] ORGAN_TYPES = {"BASIC", "HARVESTER", "TENTACLE", "SPORER"};
+    private static final String[] PROTEIN_TYPES = {"A", "B", "C", "D"};
+    private static final String[] DIRECTIONS = {"N", "E", "S", "W"};
+
+    private final int width, height;
+    private final double wallChance, proteinChance;
+    private final long seed;
+
+    MapShape(int width, int height, double wallChance, double proteinChance, long seed) {
+        this.width = width;
+        this.height = height;
+        this.wallChance = wallChance;
+        this.proteinChance = proteinChance;
+        this.seed = seed;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    /**
+     * Input for a turn where each player has grown organCount organs out from their root. Turns generated with growing
+     * organ counts differ only by the newest organs, like consecutive turns of a real game.
+     */
+    public String turnInput(int organCount) {
+        Random random = new Random(seed);
+        String[] tiles = new String[width * height];
+        for (int index = 0; index <= (tiles.length - 1) / 2; index++) {
+            double roll = random.nextDouble();
+            String tile = roll < wallChance ? "WALL" : roll < wallChance + proteinChance ? PROTEIN_TYPES[random.nextInt(4)] : null;
+            tiles[index] = tile;
+            tiles[tiles.length - 1 - index] = tile;
+        }
+        int myRoot = height / 2 * width + 1;
+        int enemyRoot = tiles.length - 1 - myRoot;
+        List<String> organs = new ArrayList<>();
+        int[] organIds = new int[tiles.length];
+        placeOrgan(tiles, organs, organIds, myRoot, "ROOT", "N", 0, 1, 1);
+        placeOrgan(tiles, organs, organIds, enemyRoot, "ROOT", "N", 0, 0, 2);
+        // Grow both organisms the same way from mirrored roots
+        List<Integer> myOrgans = new ArrayList<>(List.of(myRoot));
+        int nextId = 3;
+        for (int i = 0; i < organCount; i++) {
+            List<Integer> options = new ArrayList<>();
+            for (int organ : myOrgans) {
+                for (int neighbor : neighbors(organ)) {
+                    int mirrored = tiles.length - 1 - neighbor;
+                    if (isFree(tiles, neighbor) && isFree(tiles, mirrored) && neighbor != mirrored && !options.contains(neighbor)) {
+                        options.add(neighbor);
+                    }
+                }
+            }
+            if (options.isEmpty()) {
+                break;
+            }
+            int tile = options.get(random.nextInt(options.size()));
+            int parent = myOrgans.stream().filter(organ -> neighbors(organ).contains(tile)).findFirst().orElseThrow();
+            String type = ORGAN_TYPES[random.nextInt(ORGAN_TYPES.length)];
+            int direction = random.nextInt(4);
+            placeOrgan(tiles, organs, organIds, tile, type, DIRECTIONS[direction], organIds[parent], 1, nextId++);
+            int mirroredParent = tiles.length - 1 - parent;
+            placeOrgan(tiles, organs, organIds, tiles.length - 1 - tile, type, DIRECTIONS[(direction + 2) % 4], organIds[mirroredParent], 0, nextId++);
+            myOrgans.add(tile);
+        }
+
+        List<String> entities = new ArrayList<>();
+        for (int index = 0; index < tiles.length; index++) {
+            if (tiles[index] != null && organIds[index] == 0) {
+                entities.add(String.format("%s %s %s -1 0 X 0 0", index % width, index / width, tiles[index]));
+            }
+        }
+        entities.addAll(organs);
+        StringBuilder input = new StringBuilder().append(entities.size()).append('\n');
+        entities.forEach(entity -> input.append(entity).append('\n'));
+        return input.append("10 10 10 10\n10 10 10 10\n1\n").toString();
+    }
+
+    private void placeOrgan(String[] tiles, List<String> organs, int[] organIds, int index, String type, String direction, int parentId, int owner, int id) {
+        tiles[index] = type;
+        organIds[index] = id;
+        int rootId = owner == 1 ? 1 : 2;
+        organs.add(String.format("%s %s %s %s %s %s %s %s", index % width, index / width, type, owner, id, direction, parentId, rootId));
+    }
+
+    private boolean isFree(String[] tiles, int index) {
+        return tiles[index] == null || Arrays.asList(PROTEIN_TYPES).contains(tiles[index]);
+    }
+
+    private List<Integer> neighbors(int index) {
+        List<Integer> neighbors = new ArrayList<>();
+        int x = index % width, y = index / width;
+        if (y > 0) neighbors.add(index - width);
+        if (y < height - 1) neighbors.add(index + width);
+        if (x > 0) neighbors.add(index - 1);
+        if (x < width - 1) neighbors.add(index + 1);
+        return neighbors;
+    }
+}
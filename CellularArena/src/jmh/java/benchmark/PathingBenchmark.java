@@ -0,0 +1,39 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Path table generation: the whole table as on turn 1, and one source as when a tile changes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathingBenchmark {
+
+    @Param
+    public MapShape shape;
+
+    private BotDriver bot;
+    private Object centerTile;
+
+    @Setup
+    public void setup() {
+        bot = new BotDriver(shape);
+        centerTile = bot.tile(shape.width() / 2, shape.height() / 2);
+    }
+
+    @Benchmark
+    public void generatePathsFull() {
+        bot.generatePaths();
+    }
+
+    @Benchmark
+    public void generatePathsSingleSource() {
+        bot.generatePaths(centerTile);
+    }
+}
@@ -0,0 +1,80 @@
+package benchmark;
+
+import com.sun.management.ThreadMXBean;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A mid-game turn: loading it after the previous turn, and choosing every root's command. Each invocation reloads the
+ * turn so ghost builds and per-turn caches from the last invocation don't leak into the next.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TurnBenchmark {
+    static final int ORGAN_COUNT = 12;
+    // A turn rescores what changed and builds a command for each root, once compiled that's well under this. Work
+    // that allocates per scored candidate takes a turn on the TOUCHING map over it.
+    private static final long ALLOCATION_BUDGET_BYTES = 4096;
+    private static final int ALLOCATION_SAMPLES = 100;
+
+    @Param
+    public MapShape shape;
+
+    private BotDriver bot;
+    private String[] turnInputs;
+    private int nextTurn;
+    private int commandsNeeded;
+
+    @Setup
+    public void setup() {
+        bot = new BotDriver(shape);
+        // Alternate between two consecutive turns so every load sees organs appear or disappear
+        turnInputs = new String[]{shape.turnInput(ORGAN_COUNT), shape.turnInput(ORGAN_COUNT + 1)};
+    }
+
+    @Setup(Level.Invocation)
+    public void loadTurn(BenchmarkParams params) {
+        commandsNeeded = bot.readTurn(turnInputs[nextTurn++ % 2]);
+        if (params.getBenchmark().endsWith("getCommands")) {
+            bot.postTurnLoad();
+        }
+    }
+
+    @Benchmark
+    public void postTurnLoad() {
+        bot.postTurnLoad();
+    }
+
+    @Benchmark
+    public List<?> getCommands() {
+        return bot.getCommands(commandsNeeded);
+    }
+
+    // Runs after measurement, so the JIT has compiled the turn and removed what escape analysis can
+    @TearDown(Level.Trial)
+    public void checkAllocation(BenchmarkParams params) {
+        if (!params.getBenchmark().endsWith("getCommands")) {
+            return;
+        }
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBytes = 0;
+        for (int i = 0; i < ALLOCATION_SAMPLES; i++) {
+            loadTurn(params);
+            long before = threads.getCurrentThreadAllocatedBytes();
+            getCommands();
+            allocatedBytes += threads.getCurrentThreadAllocatedBytes() - before;
+        }
+        if (allocatedBytes / ALLOCATION_SAMPLES > ALLOCATION_BUDGET_BYTES) {
+            throw new IllegalStateException(String.format("A turn allocated %d bytes choosing commands on %s, over the %d byte budget",
+                    allocatedBytes / ALLOCATION_SAMPLES, shape, ALLOCATION_BUDGET_BYTES));
+        }
+    }
+}
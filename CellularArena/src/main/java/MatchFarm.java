@@ -0,0 +1,147 @@
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Plays a challenger with some Merit weights changed against the default weights over many seeded games, swapping
+ * sides each seed, and reports the challenger's win rate and both variants' turn times.
+ * <p>
+ * Games run in parallel, one per core. Each game only ever has one bot thinking at a time, so a core per game keeps the
+ * bots' turn deadlines close to what they would see alone. For that, bots search their turn 1 paths on their own game's
+ * thread rather than the shared fork join pool, and print no debug.
+ * <p>
+ * Not part of the submission, run with:
+ * java -cp target/classes MatchFarm [-games N] [-seed S] [-threads T] [NAME=value ...]
+ * where NAME is a Merit field, and list weights are given comma separated, for example
+ * newRootMeritByEntityCount=12,6,2
+ */
+class MatchFarm {
+
+    private record Game(long seed, boolean challengerFirst, Referee.Result result) {
+        int challengerIndex() {
+            return challengerFirst ? 0 : 1;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int games = 50;
+        long firstSeed = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Map<String, String> overrides = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-games" -> games = Integer.parseInt(args[++i]);
+                case "-seed" -> firstSeed = Long.parseLong(args[++i]);
+                case "-threads" -> threads = Integer.parseInt(args[++i]);
+                default -> {
+                    String[] override = args[i].split("=", 2);
+                    if (override.length != 2) {
+                        System.err.println("Expected NAME=value, got " + args[i]);
+                        System.exit(1);
+                    }
+                    overrides.put(override[0], override[1]);
+                }
+            }
+        }
+        // Fail on a bad override now rather than in every game
+        merit(overrides);
+
+        PrintStream report = System.out;
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+        report.printf("Playing %d games on %d threads, challenger %s%n", games, threads, overrides);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CompletionService<Game> completion = new ExecutorCompletionService<>(executor);
+        for (int i = 0; i < games; i++) {
+            long seed = firstSeed + i / 2;
+            boolean challengerFirst = i % 2 == 0;
+            completion.submit(() -> {
+                Player.Merit challenger = merit(overrides);
+                Referee referee = new Referee(seed);
+                Referee.Result result = challengerFirst
+                        ? referee.play((in, out) -> bot(in, out, challenger), (in, out) -> bot(in, out, new Player.Merit()))
+                        : referee.play((in, out) -> bot(in, out, new Player.Merit()), (in, out) -> bot(in, out, challenger));
+                return new Game(seed, challengerFirst, result);
+            });
+        }
+
+        long start = System.nanoTime();
+        int wins = 0;
+        int draws = 0;
+        List<List<Long>> turnNanos = List.of(new ArrayList<>(), new ArrayList<>());
+        List<List<Long>> turnCpuNanos = List.of(new ArrayList<>(), new ArrayList<>());
+        for (int i = 0; i < games; i++) {
+            Game game;
+            try {
+                game = completion.take().get();
+            } catch (ExecutionException e) {
+                executor.shutdownNow();
+                throw new IllegalStateException("Game failed", e.getCause());
+            }
+            Referee.Result result = game.result();
+            if (result.winner() < 0) {
+                draws++;
+            } else if (result.winner() == game.challengerIndex()) {
+                wins++;
+            }
+            // Index 0 collects the challenger's turns, 1 the default's
+            for (int player = 0; player < 2; player++) {
+                int variant = player == game.challengerIndex() ? 0 : 1;
+                Arrays.stream(result.turnNanos()[player]).forEach(turnNanos.get(variant)::add);
+                Arrays.stream(result.turnCpuNanos()[player]).forEach(turnCpuNanos.get(variant)::add);
+            }
+            report.printf("%s, challenger was bot %d%n", result, game.challengerIndex());
+        }
+        executor.shutdown();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int losses = games - wins - draws;
+        report.printf("Challenger won %d, drew %d, lost %d: %.1f%% win rate (draws count half)%n", wins, draws, losses,
+                100.0 * (wins + draws / 2.0) / games);
+        report.printf("Challenger turns: %s, cpu %s%n", Replay.summary(turnNanos.get(0)), Replay.summary(turnCpuNanos.get(0)));
+        report.printf("Default turns:    %s, cpu %s%n", Replay.summary(turnNanos.get(1)), Replay.summary(turnCpuNanos.get(1)));
+        report.printf("%.1fs, %.2f games/s%n", seconds, games / seconds);
+    }
+
+    private static Player bot(InputStream in, PrintStream out, Player.Merit merit) {
+        Player player = new Player(in, out, merit);
+        player.parallelPathing = false;
+        player.debugCategories.clear();
+        return player;
+    }
+
+    // Merit weights are doubles or lists of doubles, anything else is refused rather than set with the wrong type
+    private static Player.Merit merit(Map<String, String> overrides) {
+        Player.Merit merit = new Player.Merit();
+        for (Map.Entry<String, String> override : overrides.entrySet()) {
+            String name = override.getKey();
+            try {
+                Field field = Player.Merit.class.getField(name);
+                if (field.getType() == double.class) {
+                    field.setDouble(merit, Double.parseDouble(override.getValue()));
+                } else if (isDoubleList(field)) {
+                    field.set(merit, Arrays.stream(override.getValue().split(",")).map(Double::valueOf).toList());
+                } else {
+                    throw new IllegalArgumentException("Merit weight " + name + " is a " + field.getGenericType().getTypeName()
+                            + ", not a double or a list of doubles");
+                }
+            } catch (NoSuchFieldException e) {
+                throw new IllegalArgumentException("No Merit weight " + name, e);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Merit weight " + name + " takes a number, or comma separated numbers for a list, got " + override.getValue(), e);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return merit;
+    }
+
+    private static boolean isDoubleList(Field field) {
+        return field.getGenericType() instanceof ParameterizedType type && type.getRawType() == List.class
+                && type.getActualTypeArguments()[0] == Double.class;
+    }
+}
@@ -1,10 +1,12 @@
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.io.*;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.function.BiPredicate;
-import java.util.function.Function;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -12,1692 +14,2723 @@ import java.util.stream.Stream;
  **/
 class Player {
 
-    private Grid grid;
-    private Pathing pathing;
-    private final Timer timer = new Timer();
-    private final HashMap<Integer, Entity> entitiesById = new HashMap<>();
-    private final HashMap<Integer, List<Entity>> rootToDescendentsMap = new HashMap<>();             // All descendents for a given root id
-    private final HashMap<Integer, List<Entity>> rootToBuildableAdjacentTilesMap = new HashMap<>();  // All adjacent buildable neighbors, calculated every turn
-    private final List<Entity> myRoots = new ArrayList<>();
-    private final List<Entity> enemyRoots = new ArrayList<>();
-    private final Map<Entity, Double> buildRootMeritMap = new HashMap<>();
-    private final Map<Entity, Double> expandMeritMap = new HashMap<>();
-    private Map<EntityType, Integer> myHarvesterCountMap = new HashMap<>();                         // The number of harvesters per protein type I have
-    private Map<EntityType, Integer> enemyHarvesterCountMap = new HashMap<>();                      // The number of harvesters per protein type my enemy has
-    private final Map<BuildOption, BuildOption> cahcedBuildOptionMap = new HashMap<>();
-    private int myA;
-    private int myB;
-    private int myC;
-    private int myD;
-    private int turn = 0;
-    private Integer currentRootId;
-    private static final boolean showRootIdOnCommand = false;
-    private final List<Behavior> behaviors = new ArrayList<>();
-
-    private class Grid {
-        private final List<List<Entity>> entities;
-        private final Set<Entity> entitySet;
-        private final Set<Entity> proteins;
-        private double proteinRation;
-        private final int width, height;
-        private boolean closed;                 // If the map is open or closed off, we can take different strategies
-        private double proteinRatio;            // The ratio of proteins to
-
-        public Grid(int width, int height) {
-            this.width = width;
-            this.height = height;
-            this.entities = new ArrayList<>(height);
-            this.proteins = new HashSet<>();
-            for (int y = 0; y < height; y++) {
-                List<Entity> row = new ArrayList<>(width);
-                for (int x = 0; x < width; x++) {
-                    row.add(new Entity(this, x, y));
-                }
-                entities.add(row);
-            }
-            for (int y = 0; y < height; y++) {
-                for (int x = 0; x < width; x++) {
-                    Entity entity = entityAt(x, y);
-                    if (x > 0) {
-                        Entity left = entityAt(x - 1, y);
-                        left.setRight(entity);
-                        entity.setLeft(left);
-                    }
-                    if (y > 0) {
-                        Entity up = entityAt(x, y - 1);
-                        up.setDown(entity);
-                        entity.setUp(up);
-                    }
-                }
-            }
-            entitySet = entities.stream().flatMap(Collection::stream).collect(Collectors.toSet());
-            entitySet.forEach(Entity::initNeighbors);
-        }
-
-        public int getWidth() {
-            return width;
-        }
-
-        public int getHeight() {
-            return height;
-        }
-
-        public Set<Entity> getEntitySet() {
-            return entitySet;
-        }
-
-        public Stream<Entity> myEntitiesStream() {
-            return entitySet.stream().filter(Entity::mine);
-        }
-
-        public Set<Entity> getProteins() {
-            return proteins;
-        }
-
-        public boolean isClosed() {
-            return closed;
-        }
-
-        public void setClosed(boolean closed) {
-            this.closed = closed;
-        }
-
-        public double getProteinRation() {
-            return proteinRation;
-        }
-
-        public void setProteinRation(double proteinRation) {
-            this.proteinRation = proteinRation;
-        }
-
-        public boolean isLowResources() {
-            return proteinRation < .7;
-        }
-
-        public Entity entityAt(int x, int y) {
-            if (x >= 0 && x < width && y >= 0 && y < height) {
-                return entities.get(y).get(x);
-            }
-            throw new IllegalArgumentException(String.format("(%s,%s) is out of bounds", x, y));
-        }
-
-        public Stream<BuildOption> getBuildOptionStream(int rootId, Predicate<Entity> neighborPredicate) {
-            Function<Entity, Stream<BuildOption>> entityToBuildOptionMapper = entity -> Arrays.stream(Direction.values())
-                    .filter(direction -> {
-                        Entity entityInFront = entity.entityInDirection(direction);
-                        // Don't look silly pointing at a wall
-                        return entityInFront != null && !entityInFront.getType().equals(EntityType.WALL);
-                    })
-                    // Return arbitrary neighbor owned by rootId as build from.
-                    // If it starts to matter who builds this entity, we can break this out to multiple stream entries.
-                    .map(direction -> new BuildOption(entity.myNeighbor(rootId), direction, entity, null, turn));
-            return buildableTilesByRootIdStream(rootId)
-                    .filter(neighborPredicate)
-                    .flatMap(entityToBuildOptionMapper);
-        }
-
-        public void buildGhostEntity(Entity entity, EntityType type, Direction direction) {
-            if (entity.getType().isProtein() && !type.isProtein()) {
-                proteins.remove(entity);
-            }
-            entity.createGhostlyRealState();
-            entity.setType(type);
-            entity.setOwner(Owner.ME);
-            entity.setDirection(direction);
-            entity.refreshCachedValues();
-        }
-    }
-
-    private class Pathing {
-
-        private final Map<Entity, Map<Entity, PathInfo>> pathsMap = new HashMap<>();
-        // A map from protein's neighbors to reachable nodes given that the protein is impassable
-        private final Map<EntityPair, Map<Entity, PathInfo>> proteinNeighborPathsMap = new HashMap<>();
-        private final Map<Entity, List<PathInfo>> sortedPathsMap = new HashMap<>();
-        private final Map<EntityPair, List<PathInfo>> proteinNeighborSortedPathsMap = new HashMap<>();
-        private final int maxDepth;
-        private final int proteinNeighborMaxDepth = 8;
-
-        public Pathing(int maxDepth) {
-            this.maxDepth = maxDepth;
-        }
-
-        public int getProteinNeighborMaxDepth() {
-            return proteinNeighborMaxDepth;
-        }
-
-        public Integer distance(Entity from, Entity to) {
-            return Optional.ofNullable(pathInfo(from, to))
-                    .map(PathInfo::distance)
-                    .orElse(null);
-        }
-
-        public Integer proteinImpassableDistance(Entity protein, Entity proteinNeighbor, Entity to) {
-            return Optional.ofNullable(proteinImpassablePathInfo(protein, proteinNeighbor, to))
-                    .map(PathInfo::distance)
-                    .orElse(null);
-        }
-
-        public List<Direction> nextDirections(Entity from, Entity to) {
-            return Optional.ofNullable(pathInfo(from, to))
-                    .map(PathInfo::directions)
-                    .orElse(Collections.emptyList());
-        }
-
-        public PathInfo pathInfo(Entity from, Entity to) {
-            return Optional.ofNullable(pathsMap.get(from))
-                    .map(map -> map.get(to)).orElse(null);
-        }
-
-        public PathInfo proteinImpassablePathInfo(Entity protein, Entity proteinNeighbor, Entity to) {
-            return Optional.ofNullable(proteinNeighborPathsMap.get(new EntityPair(protein, proteinNeighbor)))
-                    .map(map -> map.get(to)).orElse(null);
-        }
-
-        public List<PathInfo> pathInfosWithinDistance(List<PathInfo> pathInfoList, Integer minSearchDistance, Integer maxSearchDistance) {
-            myAssert(minSearchDistance != null || maxSearchDistance != null, "Min or max search distance must be defined");
-            myAssert(minSearchDistance == null || maxSearchDistance == null || minSearchDistance < maxSearchDistance, "Min search distance must be greater than max search distance");
-            if (pathInfoList == null) {
-                return Collections.emptyList();
-            }
-            int startIndex = binarySearchForIndex(pathInfoList, minSearchDistance, true);
-            int endIndex = binarySearchForIndex(pathInfoList, maxSearchDistance, false);
-            // If we didn't find the number, it must be greater than everything that is within distance, return all reachable entities
-            List<PathInfo> pathInfos = endIndex < 0 ? pathInfoList : pathInfoList.subList(startIndex, endIndex + 1);
-            return pathInfos;
-        }
-
-        public List<Entity> entitiesWithinDistance(Entity from, Integer minSearchDistance, Integer maxSearchDistance) {
-            return pathInfosWithinDistance(sortedPathsMap.get(from), minSearchDistance, maxSearchDistance).stream().map(PathInfo::from).toList();
-        }
-
-        private List<Entity> entitiesWithinDistance(Entity from, Entity impassableProtein, Integer minSearchDistance, Integer maxSearchDistance) {
-            return pathInfosWithinDistance(proteinNeighborSortedPathsMap.get(new EntityPair(impassableProtein, from)), minSearchDistance, maxSearchDistance).stream().map(PathInfo::from).toList();
-        }
-
-        public List<Entity> proteinEntitiesWithinDistance(Entity from, Entity protein) {
-            return entitiesWithinDistance(from, protein, null, proteinNeighborMaxDepth);
-        }
-
-        // Return the entities within proteinNeighborMaxDepth that are reachable when the protein is passable and when it is impassable
-        public Tuple<List<Entity>, List<Entity>> proteinReachableEntityDifference(Entity protein, Entity proteinNeighbor) {
-            List<Entity> reachable = entitiesWithinDistance(proteinNeighbor, null, proteinNeighborMaxDepth);
-            List<Entity> reachableWithoutProtein = proteinEntitiesWithinDistance(proteinNeighbor, protein);
-            return new Tuple<>(reachable, reachableWithoutProtein);
-        }
-
-        private int binarySearchForIndex(List<PathInfo> pathInfoList, Integer distance, boolean beginning) {
-            if (distance == null) {
-                return beginning ? 0 : pathInfoList.size() - 1;
-            }
-            PathInfo searchValue = new PathInfo(null, null, distance, null);
-            int index = Collections.binarySearch(pathInfoList, searchValue, Comparator.comparingInt(PathInfo::distance));
-            if (index >= 0) {
-                if (beginning) {
-                    while (index > 0 && pathInfoList.get(index - 1).distance() == distance) {
-                        index--;
-                    }
-                } else {
-                    // Binary search will give an arbitrary value with this distance, need to find the last one
-                    while (index < pathInfoList.size() - 1 && pathInfoList.get(index + 1).distance() == distance) {
-                        index++;
-                    }
-                }
-            }
-            return index;
-        }
-
-        public void generatePaths() {
-            timer.start("Pathing");
-            grid.getEntitySet().forEach(this::generatePaths);
-            timer.end("Pathing");
-        }
-
-        public void generatePaths(Entity entity) {
-            if (entity.getType().equals(EntityType.WALL)) {
-                return;
-            }
-            Map<Entity, PathInfo> entityPathsMap = pathsMap.computeIfAbsent(entity, entity1 -> new HashMap<>());
-            List<PathInfo> entitySortedPaths = sortedPathsMap.computeIfAbsent(entity, entity1 -> new ArrayList<>());
-            generatePaths(entity, maxDepth, entityPathsMap, entitySortedPaths, null);
-            // Generate protein's neighbor paths given that the protein is impassable
-            if (entity.getType().isProtein() && grid.isClosed()) {
-                for (Entity neighbor : entity.neighbors()) {
-                    if (!neighbor.getType().equals(EntityType.WALL) && !proteinNeighborPathsMap.containsKey(neighbor)) {
-                        EntityPair proteinNeighborPair = new EntityPair(entity, neighbor);
-                        entityPathsMap = proteinNeighborPathsMap.computeIfAbsent(proteinNeighborPair, entity1 -> new HashMap<>());
-                        entitySortedPaths = proteinNeighborSortedPathsMap.computeIfAbsent(proteinNeighborPair, entity1 -> new ArrayList<>());
-                        generatePaths(neighbor, proteinNeighborMaxDepth, entityPathsMap, entitySortedPaths, entity1 -> entity1 != entity);
-                    }
-                }
-            }
-        }
-
-        private void generatePaths(Entity entity, int maxDepth, Map<Entity, PathInfo> pathsMap, List<PathInfo> sortedPaths, Predicate<Entity> impassablePredicate) {
-            pathsMap.clear();
-            pathsMap.put(entity, new PathInfo(entity, entity, 0, Collections.emptyList()));
-            int distance = 1;
-            Queue<Entity> queue = new LinkedList<>(entity.neighbors());
-            boolean proteinImpassableGeneration = impassablePredicate != null;
-            while (!queue.isEmpty()) {
-                int entitiesToProcess = queue.size();
-                for (int i = 0; i < entitiesToProcess; i++) {
-                    Entity to = queue.poll();
-                    if (pathsMap.get(to) != null || to.getType().equals(EntityType.WALL) || (proteinImpassableGeneration && !impassablePredicate.test(to))) {
-                        continue;
-                    }
-                    final int currentDistance = distance;
-                    List<Direction> directions = to.neighbors().stream()
-                            .filter(neighbor -> {
-                                PathInfo neighborPathInfo = pathsMap.get(neighbor);
-                                return neighborPathInfo != null && neighborPathInfo.distance() == currentDistance - 1;
-                            }).map(to::directionTo)
-                            .toList();
-                    if (!directions.isEmpty()) {
-                        pathsMap.put(to, new PathInfo(to, entity, distance, directions));
-                        for (Entity neighbor : to.neighbors()) {
-                            if (distance < maxDepth || (!proteinImpassableGeneration && neighbor.isInLineWith(entity))) {
-                                queue.offer(neighbor);
-                            }
-                        }
-                    }
-                }
-                distance++;
-            }
-            // Remove the path to self with distance 0. I don't want this coming back in query results, saying there is no path to self should be fine.
-            pathsMap.remove(entity);
-            sortedPaths.clear();
-            sortedPaths.addAll(pathsMap.values());
-            sortedPaths.sort(Comparator.comparingInt(PathInfo::distance));
-        }
-
-        private record EntityPair(Entity protein, Entity neighbor) {
-            @Override
-            public boolean equals(Object o) {
-                if (this == o) return true;
-                if (o == null || getClass() != o.getClass()) return false;
-                EntityPair that = (EntityPair) o;
-                return Objects.equals(protein, that.protein) && Objects.equals(neighbor, that.neighbor);
-            }
-
-            @Override
-            public int hashCode() {
-                return Objects.hash(protein, neighbor);
-            }
-        }
-
-    }
-
-    public static class Tuple<X, Y> {
-        public final X x;
-        public final Y y;
-
-        public Tuple(X x, Y y) {
-            this.x = x;
-            this.y = y;
-        }
-    }
-
-    record PathInfo(Entity from, Entity to, int distance, List<Direction> directions) {
-    }
-
-    private enum Direction {
-        N, S, E, W
-    }
-
-    private static class Owner {
-        public static final int ME = 1;
-        public static final int ENEMY = 0;
-        public static final int NOBODY = -1;
-    }
-
-    private enum EntityType {
-        EMPTY, WALL, A, B, C, D,
-        BASIC(1, 0, 0, 0),
-        HARVESTER(0, 0, 1, 1),
-        TENTACLE(0, 1, 1, 0),
-        SPORER(0, 1, 0, 1),
-        ROOT(1, 1, 1, 1);
-
-        private final int[] cost;
-
-        EntityType() {
-            this(0, 0, 0, 0);
-        }
-
-        EntityType(int a, int b, int c, int d) {
-            this.cost = new int[]{a, b, c, d};
-        }
-
-        private static final List<EntityType> PROTEIN_TYPES = Arrays.asList(A, B, C, D);
-
-        public boolean isProtein() {
-            return PROTEIN_TYPES.contains(this);
-        }
-
-        public int[] getCost() {
-            return cost;
-        }
-    }
-
-    private static class EntityPredicates {
-        public static final BiPredicate<Entity, Integer> HARVESTED_BY = (harvestedProtein, owner) -> harvestedProtein.getType().isProtein()
-                && harvestedProtein.neighbors().stream()
-                .anyMatch(harvester -> harvester.getType().equals(EntityType.HARVESTER)
-                        && harvester.entityInFront() == harvestedProtein
-                        && harvester.getOwner() == owner
-                );
-        public static final Predicate<Entity> SHOOT_ROOT_OVER = entity -> entity.getType().isProtein() || entity.getType().equals(EntityType.EMPTY);
-        public static final BiPredicate<Entity, Integer> ATTACKED_BY = (entity, owner) -> entity.neighborsStream()
-                .anyMatch(neighbor -> neighbor.getType().equals(EntityType.TENTACLE)
-                        && neighbor.entityInFront() == entity
-                        && neighbor.getOwner() == owner
-                );
-        public static final BiPredicate<Entity, Integer> NOT_ATTACKED_BY = EntityPredicates.ATTACKED_BY.negate();
-    }
-
-    private static class Entity {
-        private int id, parentId, rootId;
-        private final int x;
-        private final int y;
-        private final Grid grid;
-        private Entity up, down, left, right;
-        private EntityType type;
-        private final List<Entity> children;
-        private List<Entity> neighbors;
-        private int owner;           // 1 for me, 2 for enemy, 0 for no one
-        // On turn rollover, copy information needed here
-        private EntityCopy lastTurnState;
-        // When an organism decides to build something, we update the Entity's information on the same turn so other organisms
-        // can act accordingly (two organisms don't build on the same empty space, etc). This lets the entity reflect its
-        // future state. Store the current 'real' state here for reconciliation purposes next turn.
-        private EntityCopy ghostlyRealState;
-        private Direction direction;
-        private int cacheExpireTurn;        // This is the last turn that this entity or a close by entity changed, cached answers after this turn are good
-
-        // Cached values
-        private Boolean buildable;          // Calculated value that gets cached here, recalculated every turn if needed
-        private Integer descendantCount;    // Number of descendants for this entity (relevant for kills)
-        private Boolean harvestedByMe;
-        private Boolean harvestedByOpponent;
-        private Boolean attackedByMe;
-        private Boolean attackedByEnemy;
-        private Boolean proteinHarvestable;
-
-        public Entity(Grid grid, int x, int y) {
-            this.grid = grid;
-            this.x = x;
-            this.y = y;
-            children = new ArrayList<>();
-            reset();
-        }
-
-        public void reset() {
-            if (ghostlyRealState != null) {
-                lastTurnState = ghostlyRealState;
-                ghostlyRealState = null;
-            } else {
-                lastTurnState = new EntityCopy(type, direction, owner);
-            }
-            type = EntityType.EMPTY;
-            children.clear();
-            owner = Owner.NOBODY;
-            // Cached calculated values
-            buildable = null;
-            descendantCount = null;
-            harvestedByMe = null;
-            harvestedByOpponent = null;
-            proteinHarvestable = null;      // For now, recalculate every turn. Can improve this by only resetting to null when we perform actions that make recalculation needed.
-        }
-
-
-        public void refreshCachedValues() {
-            // After doing a ghost build, refresh calculated values that I may use during on turn
-            buildable = null;
-            harvestedByMe = null;
-            attackedByMe = null;
-        }
-
-        public int getId() {
-            return id;
-        }
-
-        public void setId(int id) {
-            this.id = id;
-        }
-
-        public int getParentId() {
-            return parentId;
-        }
-
-        public void setParentId(int parentId) {
-            this.parentId = parentId;
-        }
-
-        public int getRootId() {
-            return rootId;
-        }
-
-        public void setRootId(int rootId) {
-            this.rootId = rootId;
-        }
-
-        public EntityType getType() {
-            return type;
-        }
-
-        public void setType(EntityType type) {
-            this.type = type;
-        }
-
-        public List<Entity> getChildren() {
-            return children;
-        }
-
-        public int getX() {
-            return x;
-        }
-
-        public int getY() {
-            return y;
-        }
-
-        public Grid grid() {
-            return grid;
-        }
-
-        public Entity getUp() {
-            return up;
-        }
-
-        public void setUp(Entity up) {
-            this.up = up;
-        }
-
-        public Entity getDown() {
-            return down;
-        }
-
-        public void setDown(Entity down) {
-            this.down = down;
-        }
-
-        public Entity getLeft() {
-            return left;
-        }
-
-        public void setLeft(Entity left) {
-            this.left = left;
-        }
-
-        public Entity getRight() {
-            return right;
-        }
-
-        public void setRight(Entity right) {
-            this.right = right;
-        }
-
-        public void setOwner(int owner) {
-            this.owner = owner;
-        }
-
-        public int getOwner() {
-            return owner;
-        }
-
-        public Player.Direction getDirection() {
-            return direction;
-        }
-
-        public void setDirection(Player.Direction direction) {
-            this.direction = direction;
-        }
-
-        public EntityCopy getLastTurnState() {
-            return lastTurnState;
-        }
-
-        public void createGhostlyRealState() {
-            ghostlyRealState = new EntityCopy(type, direction, owner);
-        }
-
-        public EntityCopy getGhostlyRealState() {
-            return ghostlyRealState;
-        }
-
-        public boolean mine() {
-            return Owner.ME == owner;
-        }
-
-        public boolean enemy() {
-            return Owner.ENEMY == owner;
-        }
-
-        public boolean unowned() {
-            return Owner.NOBODY == owner;
-        }
-
-        public int getCacheExpireTurn() {
-            return cacheExpireTurn;
-        }
-
-        public void setCacheExpireTurn(int cacheExpireTurn) {
-            this.cacheExpireTurn = cacheExpireTurn;
-        }
-
-        public void initNeighbors() {
-            neighbors = Stream.of(up, down, left, right).filter(Objects::nonNull).toList();
-        }
-
-        public List<Entity> neighbors() {
-            return neighbors;
-        }
-
-        public Stream<Entity> neighborsStream() {
-            return neighbors.stream();
-        }
-
-        public Entity myNeighbor(int rootId) {
-            return myNeighbor(tile -> rootId == tile.getRootId());
-        }
-
-        public Entity myNeighbor(Predicate<Entity> predicate) {
-            return neighborsStream().filter(Entity::mine).filter(predicate).findFirst().orElse(null);
-        }
-
-        public Entity entityInDirection(Player.Direction direction) {
-            return switch (direction) {
-                case N -> up;
-                case S -> down;
-                case E -> right;
-                case W -> left;
-            };
-        }
-
-        public Entity entityInFront() {
-            if (direction == null) {
-                return null;
-            }
-            return entityInDirection(direction);
-        }
-
-        public Stream<Entity> entitiesInFront(Direction givenDirection, boolean skippingFirst) {
-            List<Entity> entities = new ArrayList<>();
-            Entity currentEntity = this.entityInDirection(givenDirection);
-            boolean skipped = false;
-
-            while (currentEntity != null && EntityPredicates.SHOOT_ROOT_OVER.test(currentEntity)) {
-                if(skipped) {
-                    entities.add(currentEntity);
-                } else {
-                    skipped = true;
-                }
-                currentEntity = currentEntity.entityInDirection(givenDirection);
-            }
-            return entities.stream();
-        }
-
-        public int getStraightDistanceBetween(Entity other) {
-            return Math.abs(other.x - x) + Math.abs(other.y - y);
-        }
-
-        public boolean isInLineWith(Entity other) {
-            return x == other.getX() ^ y == other.getY();
-        }
-
-        public boolean isEmpty() {
-            return type.equals(Player.EntityType.EMPTY);
-        }
-
-        public boolean isBuildable() {
-            if (buildable == null) {
-                buildable = (isEmpty() || type.isProtein()) && EntityPredicates.NOT_ATTACKED_BY.test(this, Owner.ENEMY);
-            }
-            return buildable;
-        }
-
-        public boolean isAttackedByMe() {
-            if (attackedByMe == null) {
-                attackedByMe = EntityPredicates.ATTACKED_BY.test(this, Owner.ME);
-            }
-            return attackedByMe;
-        }
-
-        public boolean isAttackedByEnemy() {
-            if (attackedByEnemy == null) {
-                attackedByEnemy = EntityPredicates.ATTACKED_BY.test(this, Owner.ENEMY);
-            }
-            return attackedByEnemy;
-        }
-
-        public Boolean isProteinHarvestable() {
-            return proteinHarvestable;
-        }
-
-        public void setProteinHarvestable(Boolean proteinHarvestable) {
-            this.proteinHarvestable = proteinHarvestable;
-        }
-
-        public Player.Direction directionTo(Entity other) {
-            int xDiff = other.getX() - x;
-            if (xDiff != 0) {
-                return xDiff > 0 ? Player.Direction.E : Player.Direction.W;
-            }
-            return other.getY() - y > 0 ? Player.Direction.S : Player.Direction.N;
-        }
-
-        public int getDescendantCount() {
-            if (descendantCount == null) {
-                descendantCount = children.size() + children.stream().mapToInt(Entity::getDescendantCount).sum();
-            }
-            return descendantCount;
-        }
-
-        public boolean isHarvestedByMe() {
-            if (harvestedByMe == null) {
-                harvestedByMe = EntityPredicates.HARVESTED_BY.test(this, Owner.ME);
-            }
-            return harvestedByMe;
-        }
-
-        public boolean isHarvestedByEnemy() {
-            if (harvestedByOpponent == null) {
-                harvestedByOpponent = EntityPredicates.HARVESTED_BY.test(this, Owner.ENEMY);
-            }
-            return harvestedByOpponent;
-        }
-
-        @Override
-        public String toString() {
-            return String.format("[Entity %s,%s  %s]", x, y, type);
-        }
-
-        // When we build a "ghost" entity to replace the current state of an entity for processing this turn, record the current "real" state for use in next turn's reconciliation.
-        private record EntityCopy(EntityType type, Direction direction, int owner) {
-        }
-    }
-
-    private interface Behavior {
-        // Returns null if there isn't a good command for this behavior
-        Player.Command getCommand(int rootId);
-    }
-
-    private class AttackBehavior implements Behavior {
-        @Override
-        public Command getCommand(int rootId) {
-            Player.EntityType buildType = EntityType.TENTACLE;
-            if (!canBuild(buildType)) {
-                debug("Can't build a sporer, skipping " + this);
-                return null;
-            }
-            debug("Starting " + this, DebugCategory.GENERAL);
-            Function<Entity, Stream<BuildOption>> entityToDirectionTupleMapper = entity -> Arrays.stream(Direction.values())
-                    .filter(direction -> {
-                        Entity neighbor = entity.entityInDirection(direction);
-                        return neighbor != null && !neighbor.mine() && !neighbor.getType().equals(EntityType.WALL);
-                    })
-                    .map(direction -> new BuildOption(entity.myNeighbor(rootId), direction, entity, null, turn));
-
-            BuildOption attackResult = buildableTilesByRootIdStream(rootId)
-                    .filter(entity -> pathing.entitiesWithinDistance(entity, null, 3).stream().anyMatch(Entity::enemy))
-                    .flatMap(entityToDirectionTupleMapper)
-                    .map(result -> new BuildOption(result.from(), result.direction(), result.to(), calculateAttackMerit(result.to(), result.direction()), result.turn()))
-//                    .peek(result -> debug(String.format("%.2f merit attacking at %s %s", result.merit(), result.to(), result.direction())))
-                    .max(Comparator.comparingDouble(BuildOption::merit))
-                    .orElse(null);
-            if (attackResult == null) {
-                return null;
-            }
-            return new GrowCommand(rootId, attackResult.from(), attackResult.to(), buildType, attackResult.direction(), attackResult.merit());
-        }
-
-        public String toString() {
-            return "[Attack Behavior]";
-        }
-    }
-
-
-    /**
-     * When an organism doesn't have a sporer, create a new one so we can branch out.
-     */
-    private class CreateSporerBehavior implements Behavior {
-        @Override
-        public Command getCommand(int rootId) {
-            if(!canBuild(EntityType.SPORER)) {
-                return null;
-            }
-            debug("Starting " + this, DebugCategory.GENERAL);
-            BuildOption mostMerit = getRootExpandLocation(rootId, false);
-
-//            debug(String.format("%s Most Merit: %s", this, mostMerit));
-            if (mostMerit != null) {
-                // Store what we found here to prevent calculations next turn, assume it is still good. Will modify this if I observe problems with using the cached value.
-                Entity buildFrom = mostMerit.from().myNeighbor(rootId);
-                Entity buildTo = mostMerit.from();
-                Direction direction = mostMerit.from().directionTo(mostMerit.to());
-                return new GrowCommand(rootId, buildFrom, buildTo, EntityType.SPORER, direction, mostMerit.merit());
-            }
-            return null;
-        }
-
-        public String toString() {
-            return "[Create Sporer Behavior]";
-        }
-    }
-
-    private class CreateNewRootBehavior implements Player.Behavior {
-        @Override
-        public Player.Command getCommand(int rootId) {
-            if (shouldConsiderNewRoot(false)) {
-                debug("Starting " + this, DebugCategory.GENERAL);
-                BuildOption nextRoot = getRootExpandLocation(rootId, true);
-                if (nextRoot != null) {
-                    return new Player.SporeCommand(rootId, nextRoot.from(), nextRoot.to(), nextRoot.merit());
-                }
-            }
-            return null;
-        }
-
-        public String toString() {
-            return "[Create New Root Behavior]";
-        }
-    }
-
-    private class BuildHarvesterBehavior implements Player.Behavior {
-        @Override
-        public Player.Command getCommand(int rootId) {
-            if (!canBuild(Player.EntityType.HARVESTER)) {
-                return null;
-            }
-            debug("Starting " + this, DebugCategory.HARVEST);
-            BuildOption harvesterToBuild = grid.getBuildOptionStream(rootId, entity -> true)
-                    .filter(buildOption -> {
-                        Entity pointedAt = buildOption.toPointedAt();
-                        return pointedAt.getType().isProtein() && !pointedAt.isHarvestedByMe();
-                    }).filter(buildOption -> Player.this.isProteinCurrentlyHarvestable(buildOption.toPointedAt()))
-                    .map(buildOption -> new BuildOption(buildOption.from(), buildOption.direction(), buildOption.to(), getHarvesterExpandMeritResult(buildOption), turn))
-                    .max(Comparator.comparingDouble(BuildOption::merit))
-                    .orElse(null);
-
-            if (harvesterToBuild == null) {
-                return null;
-            }
-            return new GrowCommand(rootId, harvesterToBuild.from(), harvesterToBuild.to(), EntityType.HARVESTER, harvesterToBuild.direction(), harvesterToBuild.merit());
-        }
-
-        public String toString() {
-            return "[Build Harvester Behavior]";
-        }
-    }
-
-    private class ExpandToSpaceBehavior implements Player.Behavior {
-        @Override
-        public Command getCommand(int rootId) {
-            // Get adjacent buildable spaces, get merit ranking for building there, sort by ranking
-            debug("Starting " + this, DebugCategory.EXPAND);
-            BuildOption bestExpandResult = buildableTilesByRootIdStream(rootId)
-                    .map(entity -> new BuildOption(entity.myNeighbor(rootId), null, entity, calculateExpandMerit(entity), turn))
-//                    .peek(result -> debug(String.format("%.2f merit expanding to %s", result.merit(), result.to())))
-                    .max(Comparator.comparingDouble(BuildOption::merit))
-                    .orElse(null);
-            Player.EntityType buildType = getArbitraryBuildableType();
-            if (bestExpandResult == null || buildType == null) {
-                return null;
-            }
-            return new GrowCommand(rootId, bestExpandResult.from(), bestExpandResult.to(), buildType, Direction.N, bestExpandResult.merit());
-        }
-
-        public String toString() {
-            return "[Expand To Space Behavior]";
-        }
-    }
-
-    private static class WaitBehavior implements Player.Behavior {
-        @Override
-        public Command getCommand(int rootId) {
-            return new WaitCommand(rootId);
-        }
-
-        public String toString() {
-            return "[Wait Behavior]";
-        }
-    }
-
-    private interface Command {
-        String getText();
-
-        double merit();
-
-        default Player.EntityType getBuildType() {
-            return null;
-        }
-
-        default Player.Entity getBuildFrom() {
-            return null;
-        }
-
-        int rootId();
-
-        // Called when the command is chosen to be executed. Can call ghostEntity() if it is creating a new entity.
-        void updateState();
-    }
-
-    private record WaitCommand(int rootId) implements Player.Command {
-        @Override
-        public String getText() {
-            return "WAIT" + (showRootIdOnCommand ? " " + rootId + " WAIT" : "");
-        }
-
-        @Override
-        public double merit() {
-            return 0;
-        }
-
-        @Override
-        public void updateState() {
-        }
-
-        public String toString() {
-            return String.format("[%.2f] WAIT", merit());
-        }
-    }
-
-    private record GrowCommand(int rootId, Player.Entity from, Player.Entity to, Player.EntityType type,
-                               Player.Direction direction, double merit) implements Player.Command {
-        @Override
-        public String getText() {
-            if (direction != null) {
-                return String.format("GROW %s %s %s %s %s%s", from.getId(), to.getX(), to.getY(), type, direction.name(), showRootIdOnCommand ? " " + rootId + " GROW" : "");
-            }
-            return String.format("GROW %s %s %s %s%s", from.getId(), to.getX(), to.getY(), type, showRootIdOnCommand ? " " + rootId + " GROW" : "");
-        }
-
-        @Override
-        public Player.EntityType getBuildType() {
-            return type;
-        }
-
-        @Override
-        public Entity getBuildFrom() {
-            return from;
-        }
-
-        @Override
-        public void updateState() {
-            to.grid().buildGhostEntity(to, type, direction);
-        }
-
-        public String toString() {
-            return String.format("[%.2f] %s", merit(), getText());
-        }
-    }
-
-    private record SporeCommand(int rootId, Player.Entity from, Player.Entity to,
-                                double merit) implements Player.Command {
-        @Override
-        public String getText() {
-            return String.format("SPORE %s %s %s%s", from.getId(), to.getX(), to.getY(), showRootIdOnCommand ? " " + rootId + " SPORE" : "");
-        }
-
-        @Override
-        public Player.EntityType getBuildType() {
-            return Player.EntityType.ROOT;
-        }
-
-        @Override
-        public Entity getBuildFrom() {
-            return from;
-        }
-
-        @Override
-        public void updateState() {
-            to.grid().buildGhostEntity(to, EntityType.ROOT, null);
-        }
-
-        public String toString() {
-            return String.format("[%.2f] %s", merit(), getText());
-        }
-    }
-
-    private List<Command> getCommands(int commandsNeeded) {
-        debug("Commands needed: " + commandsNeeded);
-        List<Command> commands = new ArrayList<>();
-        // Iterate my roots in reverse order so ostensibly further forward organisms act first
-        for (int i = commandsNeeded - 1; i >= 0; i--) {
-            Entity currentRoot = myRoots.get(i);
-            currentRootId = currentRoot.getId();
-            List<Command> possibleCommands = new ArrayList<>();
-            for (Behavior behavior : behaviors) {
-                timer.start(behavior);
-                Optional.ofNullable(behavior.getCommand(currentRoot.getRootId()))
-                        .ifPresent(possibleCommands::add);
-                timer.end(behavior);
-            }
-            debug("Commands considered:");
-            for (Command command : possibleCommands) {
-                debug(command, DebugCategory.GENERAL, 1);
-            }
-            Command bestCommand = possibleCommands.stream().max(Comparator.comparingDouble(Command::merit)).orElseThrow(() -> new IllegalStateException("No command found"));
-            debug("Executing command " + bestCommand);
-            spendProtein(bestCommand.getBuildType());
-            bestCommand.updateState();
-            Entity buildFrom = bestCommand.getBuildFrom();
-            if (buildFrom != null) {
-                myAssert(buildFrom.getRootId() == bestCommand.rootId(), String.format("It is root %s's turn but we are producing from %s with root id %s", bestCommand.rootId(), buildFrom, buildFrom.getRootId()));
-            }
-            commands.add(bestCommand);
-        }
-        currentRootId = null;
-        return commands;
-    }
-
-    private EntityType getArbitraryBuildableType() {
-        int tentacleBuildCount = buildCount(EntityType.TENTACLE);
-        if (tentacleBuildCount > 20) {
-            // If we can build a ton of tentacles, just build it. It's the only one that may incidentally help down the road
-            return EntityType.TENTACLE;
-        }
-        Stream<EntityType> ENTITY_BUILD_TYPES = Stream.of(EntityType.BASIC, EntityType.SPORER, EntityType.TENTACLE, EntityType.HARVESTER);
-        return ENTITY_BUILD_TYPES.max(Comparator.comparingInt(this::buildCount))
-                .filter(this::canBuild)
-                .orElse(null);
-    }
-
-    private Stream<Entity> buildableTilesByRootIdStream(int rootId) {
-        // Filter by isBuildable as it may have changed since the beginning of the turn
-        return rootToBuildableAdjacentTilesMap.get(rootId).stream()
-                .filter(Entity::isBuildable);
-    }
-
-    // Represents a possibility for building from somewhere to somewhere. Turn can be used for knowing what turn we generate it on
-    // and if we can use a cached value or if it has expired.
-    private record BuildOption(Entity from, Direction direction, Entity to, Double merit, int turn) {
-        public Entity toPointedAt() {
-            return to.entityInDirection(direction);
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            BuildOption that = (BuildOption) o;
-            return Objects.equals(to, that.to) && Objects.equals(from, that.from) && direction == that.direction;
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(from, direction, to);
-        }
-    }
-
-    private boolean canBuild(EntityType type) {
-        return buildCount(type) > 0;
-    }
-
-    private int buildCount(EntityType type) {
-        return switch (type) {
-            case BASIC -> myA;
-            case HARVESTER -> Math.min(myC, myD);
-            case TENTACLE -> Math.min(myB, myC);
-            case SPORER -> Math.min(myB, myD);
-            case ROOT -> Math.min(Math.min(Math.min(myA, myB), myC), myD);
-            default -> throw new IllegalArgumentException("Can't build type " + type);
-        };
-    }
-
-    private int getProteinCount(EntityType type) {
-        return switch (type) {
-            case A -> myA;
-            case B -> myB;
-            case C -> myC;
-            case D -> myD;
-            default -> throw new IllegalArgumentException();
-        };
-    }
-
-    private void spendProtein(EntityType type) {
-        if (type == null) {
-            return;
-        }
-        int[] costs = type.getCost();
-        myA -= costs[0];
-        myB -= costs[1];
-        myC -= costs[2];
-        myD -= costs[3];
-    }
-
-    /**
-     * @param rootId           The rootId for the entity
-     * @param buildingRoot True if we want to try spawning a root from an existing spore, false if are looking
-     *                         to create a spore, then spawn a root next turn.
-     * @return The result of all possibilities for new ROOT expansion
-     */
-    private BuildOption getRootExpandLocation(int rootId, boolean buildingRoot) {
-        Function<Entity, Stream<BuildOption>> entityToDirectionTupleMapper = entity -> Arrays.stream(Direction.values()).map(direction -> new BuildOption(entity, direction, null, null, turn));
-
-        // Stream with the place we want to place a spore and its direction
-        Stream<BuildOption> sporeDirectionStream;
-        if (buildingRoot) {
-            sporeDirectionStream = grid.myEntitiesStream()
-                    .filter(entity -> entity.getRootId() == rootId)
-                    .filter(entity -> entity.getType().equals(EntityType.SPORER))
-                    .map(entity -> new BuildOption(entity, entity.getDirection(), null, null, turn));
-        } else {
-            sporeDirectionStream = buildableTilesByRootIdStream(rootId)
-                    .flatMap(entityToDirectionTupleMapper);
-        }
-
-        return sporeDirectionStream
-                .flatMap(result ->
-                        // Skip first entity because it probably won't make sense to create a new root right in front of where we are, just expand there
-                        result.from().entitiesInFront(result.direction(), true)
-                        .map(potentialRootTile -> new BuildOption(result.from(), result.direction(), potentialRootTile, null, result.turn()))
-                )
-                .filter(result -> result.to().isBuildable())
-                .map(result -> {
-                    BuildOption cachedBuildOption = cahcedBuildOptionMap.get(result);
-                    if(cachedBuildOption != null) {
-                        debug("Found cached option " + cachedBuildOption);
-                        int lastEntityUpdatedTurn = buildingRoot ? cachedBuildOption.to().getCacheExpireTurn() : Math.max(cachedBuildOption.from().getCacheExpireTurn(), cachedBuildOption.to().getCacheExpireTurn());
-                        if(lastEntityUpdatedTurn < cachedBuildOption.turn()) {
-                            debug("Using cached build option " + cachedBuildOption, DebugCategory.SPORING, 1);
-                            return cachedBuildOption;
-                        }
-                    }
-                    BuildOption newBuildOption = new BuildOption(result.from(), result.direction(), result.to(), calculateRootMerit(result.from(), result.to(), buildingRoot), result.turn());
-                    cahcedBuildOptionMap.put(newBuildOption, newBuildOption);
-                    return newBuildOption;
-                })
-                .max(Comparator.comparingDouble(BuildOption::merit))
-                .orElse(null);
-    }
-
-    // These are the knobs we can turn to influence decision-making
-    public static class Merit {
-
-        // -- Generic --
-        // Don't build on proteins we are harvesting
-        public static final double BUILD_ON_CURRENTLY_HARVESTED_PROTEIN_HIGH_RESOURCES = -9;
-        public static final double BUILD_ON_CURRENTLY_HARVESTED_PROTEIN_LOW_RESOURCES = -15;
-        public static final double BUILD_ON_UNHARVESTED_PROTEIN_LOW_RESOURCES = -15;
-
-        // --- New Root ---
-        // Give this much merit per space the root is from the sporer
-        public static final double NEW_ROOT_MERIT_PER_DISTANCE_FROM_SPORER = .3;
-        // Don't give extra bonus after this many spaces, it may shove us in a corner instead of a better spot
-        public static final double NEW_ROOT_MERIT_MAX_DISTANCE_FOR_BONUS = 10;
-        // The first new ROOT gives [0], second [1], etc
-        public static final List<Double> NEW_ROOT_MERIT_BY_ENTITY_COUNT = Arrays.asList(12.0, 8.0, 4.0);
-        // Merit for new ROOTs after the above benefits are exhausted
-        public static final double NEW_ROOT_MERIT_DEFAULT = 0;
-
-        public static final List<Double> NEW_ROOT_MERIT_FROM_PROTEIN_BY_DISTANCE = Arrays.asList(.5, .25, 1.0, .25);
-        public static final double NEW_ROOT_MERIT_FROM_FRIENDLY_WITHIN_THREE_DISTANCE = -3;
-
-        // -- New Harvester --
-        // Same as above, first harvester of this protein type gets [0], etc
-        public static final List<Double> NEW_HARVESTER_MERIT_BY_ENTITY_COUNT = Arrays.asList(8.0, 5.0);
-        // Default merit count of harvesters of a protein type after the 2nd
-        public static final double NEW_HARVESTER_DEFAULT_MERIT = 4.0;
-        // Don't harvest near enemies
-        public static final double NEW_HARVESTER_PROTEIN_CLOSE_TO_ENEMY_MERIT = -5;
-        // Prioritize building on tiles having a lower number of proteins they can harvest. If tile 1 can harvest an A or D and tile 2 can only harvest that same D,
-        // regardless of going for A or D first, we want to harvest A from tile 1 and D from tile 2. If we are going for D, give a benefit to tile 2 over 1.
-        public static final double NEW_HARVESTER_TILE_HARVESTABLE_PROTEINS_MERIT = -.2;
-        // If we are building the last harvester we can afford, and we don't have at least 1 B and C harvester (including the built one), we are getting locked out
-        // of building future harvesters unless we consume one of those proteins in the future - a bad place to be. Hold off on this harvester in hopes that we
-        // get a B and C.
-        public static final double NEW_HARVESTER_NO_FUTURE_HARVESTERS = -10;
-        // Depending on how badly we need a protein, give a multiplier between the blow values ( _MIN_ to _MAX_, linearly scaling from 0 to the below value)
-        // For example, given the below 3 values of 20, 2, .5, if we have 6 of that protein, give a (20-6)/20 * (2-.5) + .5 = 1.55 multiplier because we are relatively low
-        // Having 20 would give the min of (20-20)/20 * (2-.5) + .5 = .5
-        public static final double NEW_HARVESTER_PROTEIN_THRESHOLD = 8;
-        public static final double NEW_HARVESTER_MAX_PROTEIN_MERIT = 5;
-        public static final double NEW_HARVESTER_MIN_PROTEIN_MERIT = 0;
-
-        // --New Arbitrary Expansion --
-        // Same as above. The multiplier is applied per protein and is divided by the distances to that protein.
-        public static final double NEW_EXPANSION_TO_PROTEIN_THRESHOLD = 20;
-        public static final double NEW_EXPANSION_TO_PROTEIN_MAX_PROTEIN_MULTIPLIER = 2;
-        public static final double NEW_EXPANSION_TO_PROTEIN_MIN_PROTEIN_MULTIPLIER = 0;
-
-        // Late game (turn 70+) when the field is likely locked up, increase merit of taking spaces (harvested proteins)
-        public static final double NEW_EXPANSION_LATE_GAME_EXPAND_MERIT = 5;
-        // Merit bonus when I'm out of a protein and can consume one
-        public static final double NEW_EXPANSION_NEED_PROTEIN_MERIT = 3;
-
-        // -- New Attacker --
-        // Merit for pointing in the direction of an enemy 1, 2, 3 spaces away. 1 space is covered below by killing, building 1 space away pointing the wrong way doesn't help.
-        public static final List<Double> NEW_ATTACKER_DISTANCE_FROM_ENEMY_MERIT = Arrays.asList(0.0, 6.0, 6.0, 2.0);
-        // Get a small merit bonus to break ties between two directions we could be pointing. Ex if building down and enemies are to the south east, point east.
-        public static final double NEW_ATTACKER_POINTED_AT_ENEMY = .2;
-        // Get a kill - build distance 1 away and pointing in the right direction
-        public static final double NEW_ATTACKER_PARENT_KILL_MERIT = 10;
-        // Merit for each child of the parent killed. Not sure yet if this is an important distinction, or if a kill is a kill
-        public static final double NEW_ATTACKER_CHILD_KILL_MERIT = 1;
-        // If a protein is contested, better we take it than the opponent
-        public static final double NEW_ATTACKER_BUILD_ON_PROTEIN_MERIT = 3;
-        // If we are already pointing an attacker at the tile we are considering building in, it isn't as important to build there because the enemy can't
-        // It still may be important if the enemy could build up a tentacle coming into this square and us building one would prevent that (both new tentacles die)
-        public static final double NEW_ATTACKER_TILE_CONTROLED_MERIT = -2;
-        // If we can point two directions and we already have someone attacking one square, go the other way
-        public static final double NEW_ATTACKER_ATTACKING_TILE_CONTROLLED_MERIT = -2;
-    }
-
-    /**
-     * Ideally, we create a root that is 2 spaces away from proteins (for harvesting) and far away from everything else.
-     */
-    private double calculateRootMerit(Entity sporer, Entity newRoot, boolean buildingRoot) {
-        double totalMerit = buildRootMeritMap.computeIfAbsent(newRoot, entity ->
-                pathing.entitiesWithinDistance(newRoot, null, 3)
-                        .stream()
-                        .reduce(0.0, (meritSum, closeByEntity) -> getRootMeritFromNearbyTile(newRoot, closeByEntity) + meritSum, Double::sum)
-                        + getRootMeritWithSource(sporer, newRoot, buildingRoot)
-        );
-        debug(String.format("%.2f total merit for sporing %s to %s ", totalMerit, sporer, newRoot), DebugCategory.SPORING);
-        return totalMerit;
-    }
-
-    private double getRootMeritWithSource(Entity from, Entity newRoot, boolean buildingRoot) {
-        int distance = pathing.distance(from, newRoot);
-        double meritForDistanceFromSource = Merit.NEW_ROOT_MERIT_PER_DISTANCE_FROM_SPORER * Math.min(distance, Merit.NEW_ROOT_MERIT_MAX_DISTANCE_FOR_BONUS);
-        int currentRoots = myRoots.size();
-        // Give merit based on how many roots we have. Creating a second gives [0], a third gives [1], etc.
-        double meritFromNewRoot = currentRoots <= Merit.NEW_ROOT_MERIT_BY_ENTITY_COUNT.size() ? Merit.NEW_ROOT_MERIT_BY_ENTITY_COUNT.get(currentRoots - 1) : Merit.NEW_ROOT_MERIT_DEFAULT;
-        double meritFromCurrentResources = getRootMeritBasedOnResources(from, newRoot, buildingRoot);
-        double buildingOnHarvestedProteinMerit = from.isHarvestedByMe() || newRoot.isHarvestedByMe() ? getBuildOnResourceMerit() : 0;
-        double buildingOnProteinIShouldHarvest = grid.isLowResources() && (from.getType().isProtein() || newRoot.getType().isProtein()) ? Merit.BUILD_ON_UNHARVESTED_PROTEIN_LOW_RESOURCES : 0;
-        debugMerit(String.format("%.2f building root number %s", meritFromNewRoot, (currentRoots + 1)), meritFromNewRoot, DebugCategory.SPORING, 1);
-        debugMerit(String.format("%.2f distance merit sporing from %s to %s (distance %s)", meritForDistanceFromSource, from, newRoot, distance), meritForDistanceFromSource, DebugCategory.SPORING, 1);
-        debugMerit(String.format("%.2f resource drain merit", meritFromCurrentResources), meritForDistanceFromSource, DebugCategory.SPORING, 1);
-        debugMerit(String.format("%.2f building on harvested protein", buildingOnHarvestedProteinMerit), buildingOnHarvestedProteinMerit, DebugCategory.SPORING, 1);
-        debugMerit(String.format("%.2f building on protein on low resource map", buildingOnProteinIShouldHarvest), buildingOnProteinIShouldHarvest, DebugCategory.SPORING, 1);
-        return meritForDistanceFromSource + meritFromNewRoot + meritFromCurrentResources + buildingOnHarvestedProteinMerit + buildingOnProteinIShouldHarvest;
-    }
-
-    private double getBuildOnResourceMerit() {
-        return grid.getProteinRation() < .7 ? Merit.BUILD_ON_CURRENTLY_HARVESTED_PROTEIN_LOW_RESOURCES : Merit.BUILD_ON_CURRENTLY_HARVESTED_PROTEIN_HIGH_RESOURCES;
-    }
-
-    // How much we can afford to build the sporer / root? Give negative merit based on current resources and harvesters.
-    private double getRootMeritBasedOnResources(Entity sporer, Entity newRoot, boolean buildingRoot) {
-        int aCount = myA;
-        int bCount = myB;
-        int cCount = myC;
-        int dCount = myD;
-        Entity buildingEntity = buildingRoot ? newRoot : sporer;
-        if(buildingEntity.getType().isProtein()) {
-            switch(buildingEntity.getType()) {
-                case A: aCount += 3;
-                case B: bCount += 3;
-                case C: cCount += 3;
-                case D: dCount += 3;
-            }
-        }
-        if(!shouldConsiderNewRoot(!buildingRoot)) {
-            return -10;
-        }
-        return 0;
-    }
-
-    private double calculateExpandMerit(Entity source) {
-        return expandMeritMap.computeIfAbsent(source, entity -> grid.getProteins().stream()
-                .mapToDouble(protein -> getNearbyProteinExpandMerit(entity, protein))
-                .sum() + getLocationExpandMerit(source)
-        );
-    }
-
-    // Gives the amount of merit for expanding to source given the fact that a given protein entity is nearby
-    private double getNearbyProteinExpandMerit(Entity source, Entity protein) {
-        myAssert(protein.getType().isProtein(), protein + " is not a protein");
-        Integer distance = pathing.distance(source, protein);
-        if (distance == null || distance > 6) {
-            return 0;
-        }
-
-        // Don't give additional bonus to proteins that are 1 away
-        distance = Math.max(2, distance);
-        int proteinCount = getProteinCount(protein.getType());
-        double proteinMultiplier = linearlyScaledPercent(proteinCount, Merit.NEW_EXPANSION_TO_PROTEIN_THRESHOLD, Merit.NEW_EXPANSION_TO_PROTEIN_MIN_PROTEIN_MULTIPLIER, Merit.NEW_EXPANSION_TO_PROTEIN_MAX_PROTEIN_MULTIPLIER);
-        double totalMerit = proteinMultiplier / distance;
-//        debug(String.format("\t%.2f merit from %s", totalMerit, protein));
-        return totalMerit;
-    }
-
-    private double getLocationExpandMerit(Entity source) {
-        double buildingOnHarvestedProteinMerit = source.isHarvestedByMe() ? getBuildOnResourceMerit() : 0;
-        double lateGameExpandMerit = turn >= 70 ? Merit.NEW_EXPANSION_LATE_GAME_EXPAND_MERIT : 0;
-        double consumeNeededProteinMerit = source.getType().isProtein() && getProteinCount(source.getType()) == 0 ? Merit.NEW_EXPANSION_NEED_PROTEIN_MERIT : 0;
-        double totalMerit = buildingOnHarvestedProteinMerit + lateGameExpandMerit + consumeNeededProteinMerit;
-        debugMerit(String.format("%.2f from building on harvested protein", buildingOnHarvestedProteinMerit), buildingOnHarvestedProteinMerit, DebugCategory.EXPAND, 1);
-        debugMerit(String.format("%.2f from late game expansion", lateGameExpandMerit), lateGameExpandMerit, DebugCategory.EXPAND, 1);
-        debugMerit(String.format("%.2f from consuming needed protein %s", consumeNeededProteinMerit, source), consumeNeededProteinMerit, DebugCategory.EXPAND, 1);
-        debug(String.format("%.2f merit expanding to %s", totalMerit, source), DebugCategory.EXPAND);
-        return totalMerit;
-    }
-
-    // See examples in Merit.class
-    private double linearlyScaledPercent(double count, double threshold, double min, double max) {
-        return (Math.max(0, threshold - count) / threshold) * (max - min) + min;
-    }
-
-    /**
-     * Return false if we should not be considering harvesting this protein because it blocks our progress too much
-     * Calculated by seeing which neighbors are reachable by us without going through the protein.
-     * If a neighbor is not reachable, check how many tiles we are losing out on to decide if harvesting is worth it.
-     */
-    private boolean isProteinCurrentlyHarvestable(Entity protein) {
-        if(protein.isProteinHarvestable() != null) {
-            return protein.isProteinHarvestable();
-        }
-        boolean isHarvestable = protein.neighborsStream()
-                .filter(Entity::isBuildable)
-                .map(neighbor -> new Tuple<>(neighbor, pathing.proteinEntitiesWithinDistance(neighbor, protein)))
-                .filter(neighborWithReachableEntitiesTuple -> neighborWithReachableEntitiesTuple.y.stream().noneMatch(Entity::mine))
-                .noneMatch(neighborWithReachableEntitiesTuple -> {
-                    Entity neighbor = neighborWithReachableEntitiesTuple.x;
-                    List<Entity> reachableEntities = neighborWithReachableEntitiesTuple.y;
-                    // If are cutting off a significant portion of the map, this protein is unharvested. Use the presence of an Entity at max search depth as a proxy for cutting off many tiles.
-                    int maxDistance = reachableEntities.isEmpty() ? 0 : pathing.distance(neighbor, reachableEntities.get(reachableEntities.size() - 1));
-                    return maxDistance == pathing.getProteinNeighborMaxDepth();
-                });
-
-        debug(" [" + isHarvestable + "] Is harvestable answer for " + protein, DebugCategory.HARVEST, 1);
-        protein.setProteinHarvestable(isHarvestable);
-        return isHarvestable;
-    }
-
-    private double getHarvesterExpandMeritResult(BuildOption buildOption) {
-        // Give merit based on how many harvesters we currently have of that type. With zero, give HARVESTER_MERIT[0], etc.
-        List<Double> HARVESTER_MERIT_LIST = Merit.NEW_HARVESTER_MERIT_BY_ENTITY_COUNT;
-        Entity proteinTarget = buildOption.toPointedAt();
-        EntityType protein = proteinTarget.getType();
-        int harvesterCount = myHarvesterCountMap.get(protein);
-        double harvesterMerit = harvesterCount < HARVESTER_MERIT_LIST.size() ? HARVESTER_MERIT_LIST.get(harvesterCount) : Merit.NEW_HARVESTER_DEFAULT_MERIT;
-        int proteinCount = getProteinCount(protein);
-        double proteinMerit = linearlyScaledPercent(proteinCount, Merit.NEW_HARVESTER_PROTEIN_THRESHOLD, Merit.NEW_HARVESTER_MIN_PROTEIN_MERIT, Merit.NEW_HARVESTER_MAX_PROTEIN_MERIT);
-        double closeEnemyMerit = pathing.entitiesWithinDistance(proteinTarget, null, 2).stream()
-                .filter(Entity::enemy)
-                .count() * Merit.NEW_HARVESTER_PROTEIN_CLOSE_TO_ENEMY_MERIT;
-        double harvestableProteinsMerit = buildOption.to().neighborsStream()
-                .filter(neighbor -> neighbor.getType().isProtein() && !neighbor.isHarvestedByMe())
-                .count() * Merit.NEW_HARVESTER_TILE_HARVESTABLE_PROTEINS_MERIT;
-        // If this is the last harvester we can build, make sure we have at least 1 C and D income so we can continue to build harvesters in the future
-        int nextTurnCProtein = myC + myHarvesterCountMap.get(EntityType.C) + (protein == EntityType.C ? 1 : 0) - 1;
-        int nextTurnDProtein = myD + myHarvesterCountMap.get(EntityType.D) + (protein == EntityType.D ? 1 : 0) - 1;
-        double noFutureHarvestersMerit = (nextTurnCProtein == 0 || nextTurnDProtein == 0) ? Merit.NEW_HARVESTER_NO_FUTURE_HARVESTERS : 0;
-        double buildOnCurrentlyHarvestedProtein = buildOption.to().isHarvestedByMe() ? getBuildOnResourceMerit() : 0;
-        double buildMerit = harvesterMerit + proteinMerit + closeEnemyMerit + harvestableProteinsMerit + noFutureHarvestersMerit + buildOnCurrentlyHarvestedProtein;
-        debugMerit(String.format("%.2f from lack of harvesters", harvesterMerit), harvesterMerit, DebugCategory.HARVEST, 1);
-        debugMerit(String.format("%.2f from lack of protein", proteinMerit), proteinMerit, DebugCategory.HARVEST, 1);
-        debugMerit(String.format("%.2f from harvesting close to enemy", closeEnemyMerit), closeEnemyMerit, DebugCategory.HARVEST, 1);
-        debugMerit(String.format("%.2f from consuming tile I am already harvesting", harvestableProteinsMerit), harvestableProteinsMerit, DebugCategory.HARVEST, 1);
-        debugMerit(String.format("%.2f from using last proteins", noFutureHarvestersMerit), noFutureHarvestersMerit, DebugCategory.HARVEST, 1);
-        debugMerit(String.format("%.2f from building on resource I am harvesting %s", buildOnCurrentlyHarvestedProtein, buildOption.to()), buildOnCurrentlyHarvestedProtein, DebugCategory.HARVEST, 1);
-        debug(String.format("%.2f merit building harvester on %s %s", buildMerit, protein, buildOption.to()), DebugCategory.HARVEST);
-        return buildMerit;
-    }
-
-    private void debugMerit(String message, double merit, DebugCategory category, int indentLevel) {
-        if(merit != 0) {
-            debug(message, category, indentLevel);
-        }
-    }
-
-    private double getRootMeritFromNearbyTile(Entity source, Entity closeByEntity) {
-        Integer distance = pathing.distance(source, closeByEntity);
-        if (distance == null) {
-            return 0;
-        }
-        List<Double> meritByDistance = Merit.NEW_ROOT_MERIT_FROM_PROTEIN_BY_DISTANCE;
-        double meritImpact = 0;
-        if (closeByEntity.getType().isProtein() && distance < meritByDistance.size()) {
-            meritImpact += meritByDistance.get(distance);
-        } else if (closeByEntity.mine()) {
-            meritImpact += Merit.NEW_ROOT_MERIT_FROM_FRIENDLY_WITHIN_THREE_DISTANCE;
-        }
-        return meritImpact;
-    }
-
-    private boolean shouldConsiderNewRoot(boolean buildingSporer) {
-        // Allow 1 more resource for sporer compared to root, otherwise we look dumb creating a sporer and not following up with a root
-        int MIN_EXPAND_PROTEIN = 3 - (buildingSporer ? 0 : 1);
-        return Stream.of(myA, myB, myC, myD).allMatch(integer -> integer >= MIN_EXPAND_PROTEIN);
-    }
-
-    private double calculateAttackMerit(Entity newTentacle, Direction buildDirection) {
-        // Points for pointing at nearby enemies where the next direction is our attack direction
-        // Points for enemies that are 1 or 2 spaces away?
-        debug("Calculating attack merit for " + newTentacle + " " + buildDirection, DebugCategory.ATTACK);
-        double nearbyEnemyMerit = pathing.entitiesWithinDistance(newTentacle, null, 3).stream()
-                .filter(Entity::enemy)
-                .mapToDouble(protein -> getNearbyEnemyAttackMerit(newTentacle, buildDirection, protein))
-                .sum();
-        debug(String.format("%.2f nearby enemy merit total", nearbyEnemyMerit), DebugCategory.ATTACK, 1);
-        double attackLocationMerit = getLocationAttackMerit(newTentacle, buildDirection);
-        debug(String.format("%.2f attack location merit total", attackLocationMerit), DebugCategory.ATTACK, 1);
-        return nearbyEnemyMerit + attackLocationMerit;
-    }
-
-    private double getNearbyEnemyAttackMerit(Entity newTentacle, Direction buildDirection, Entity enemy) {
-        PathInfo pathInfo = pathing.pathInfo(newTentacle, enemy);
-        if (pathInfo == null) {
-            return 0;
-        }
-        List<Double> enemyDistanceMerits = Merit.NEW_ATTACKER_DISTANCE_FROM_ENEMY_MERIT;
-        int distance = pathInfo.distance();
-
-        Entity nextEntity = newTentacle.entityInDirection(buildDirection);
-        if (nextEntity == null) {
-            return 0;
-        }
-
-        boolean goingInRightDirection;
-        boolean kill = false;
-        if (nextEntity == enemy) {
-            goingInRightDirection = true;
-            kill = true;
-        } else {
-            PathInfo nextPathInfo = pathing.pathInfo(nextEntity, enemy);
-            if (nextPathInfo == null) {
-                return 0;
-            }
-            goingInRightDirection = nextPathInfo.distance() < pathInfo.distance();
-        }
-
-        int distanceInDirection = switch (buildDirection) {
-            case N -> Math.max(0, newTentacle.getY() - enemy.getY());
-            case S -> Math.max(0, enemy.getY() - newTentacle.getY());
-            case W -> Math.max(0, newTentacle.getX() - enemy.getX());
-            case E -> Math.max(0, enemy.getX() - newTentacle.getX());
-        };
-
-        myAssert(distance < enemyDistanceMerits.size(), String.format("%s to %s has distance %s", newTentacle, enemy, distance));
-        double closeToEnemyMerit = goingInRightDirection ? enemyDistanceMerits.get(distance - 1) : 0;
-        int killCount = kill ? 1 + enemy.getDescendantCount() : 0;
-        double killMerit = killCount * Merit.NEW_ATTACKER_PARENT_KILL_MERIT;
-        double distanceMerit = Merit.NEW_ATTACKER_POINTED_AT_ENEMY * distanceInDirection;
-        double totalMeritFromEnemy = closeToEnemyMerit + killMerit + distanceMerit;
-        debug(String.format("%.2f from attacking " + enemy + "  %.2f  %.2f  %.2f", totalMeritFromEnemy, closeToEnemyMerit, killMerit, distanceMerit), DebugCategory.ATTACK, 2);
-        return totalMeritFromEnemy;
-    }
-
-    private double getLocationAttackMerit(Entity newTentacle, Direction buildDirection) {
-        Entity entityInFrontOfTentacle = newTentacle.entityInDirection(buildDirection);
-        myAssert(entityInFrontOfTentacle != null, "Attacking into nothing from " + newTentacle + " " + buildDirection);
-        double buildOnProteinMerit = newTentacle.getType().isProtein() ? Merit.NEW_ATTACKER_BUILD_ON_PROTEIN_MERIT : 0;
-        double attackedByMeMerit = newTentacle.isAttackedByMe() ? Merit.NEW_ATTACKER_TILE_CONTROLED_MERIT : 0;
-        double attackingControlledTileMerit = entityInFrontOfTentacle.isAttackedByMe() ? Merit.NEW_ATTACKER_ATTACKING_TILE_CONTROLLED_MERIT : 0;
-        if (buildOnProteinMerit != 0) {
-            debug(String.format("%.2f for building on protein", buildOnProteinMerit), DebugCategory.ATTACK, 1);
-        }
-        if (attackedByMeMerit != 0) {
-            debug(String.format("%.2f for already controlling tile", attackedByMeMerit), DebugCategory.ATTACK, 1);
-        }
-        if (buildOnProteinMerit != 0) {
-            debug(String.format("%.2f for attacking already controlled tile", attackingControlledTileMerit), DebugCategory.ATTACK, 1);
-        }
-        return buildOnProteinMerit + attackedByMeMerit + attackingControlledTileMerit;
-    }
-
-    // This entity has been updated, set its cache expiry turn and do the same for close by entities
-    private void updateCachedTurn(Entity entity) {
-        pathing.entitiesWithinDistance(entity, null, 2)
-                .forEach(entity1 -> entity1.setCacheExpireTurn(turn));
-    }
-
-    private List<Behavior> getBehaviors() {
-        return Arrays.asList(
-                new AttackBehavior(),
-                new CreateNewRootBehavior(),
-                new CreateSporerBehavior(),
-                new BuildHarvesterBehavior(),
-                new ExpandToSpaceBehavior(),
-                new WaitBehavior()
-        );
-    }
-
-    private void newTurn() {
-        turn++;
-        timer.start("Turn " + turn);
-        debug("Start of turn " + turn);
-        myRoots.clear();
-        enemyRoots.clear();
-        entitiesById.clear();
-        rootToDescendentsMap.clear();
-        rootToBuildableAdjacentTilesMap.clear();
-        grid.getEntitySet().forEach(Entity::reset);
-        grid.getProteins().clear();
-        buildRootMeritMap.clear();
-        expandMeritMap.clear();
-        myHarvesterCountMap.clear();
-        enemyHarvesterCountMap.clear();
-    }
-
-    private void postTurnLoad() {
-        timer.start("Post Turn Load");
-        // Give parents their children
-        entitiesById.values().forEach(entity -> entitiesById.get(entity.getParentId()).getChildren().add(entity));
-
-        myRoots.sort(Comparator.comparingInt(Entity::getId));
-
-        // Cache the list of organisms for each root id along with the neighbors we can build on
-        myRoots.forEach(rootEntity -> {
-            rootToDescendentsMap.put(rootEntity.getId(), new ArrayList<>());
-            rootToBuildableAdjacentTilesMap.put(rootEntity.getId(), new ArrayList<>());
-        });
-        grid.myEntitiesStream().forEach(entity -> rootToDescendentsMap.get(entity.getRootId()).add(entity));
-        myRoots.forEach(rootEntity -> {
-            List<Entity> buildableNeighbors = rootToDescendentsMap.get(rootEntity.getRootId()).stream()
-                    .flatMap(Entity::neighborsStream)
-                    .distinct()
-                    .filter(Entity::isBuildable)
-                    .toList();
-            rootToBuildableAdjacentTilesMap.put(rootEntity.getId(), buildableNeighbors);
-        });
-
-        if (turn > 1) {
-            // Process changed entities
-            // Reprocess pathing for all changes in walls and their neighbors
-            // If we start hitting processing timeouts, we can modify this behavior to reprocess fewer tiles or set a limit on search distance
-            List<Entity> changedEntities = grid.getEntitySet().stream()
-                    .filter(entity -> !entity.getType().equals(entity.getLastTurnState().type()))
-                    .toList();
-            changedEntities
-                    .forEach(entity -> {
-                        pathing.generatePaths(entity);
-                        updateCachedTurn(entity);
-                    });
-        }
-
-        myHarvesterCountMap = grid.getProteins().stream()
-                .filter(Entity::isHarvestedByMe)
-                .map(Entity::getType)
-                .collect(Collectors.groupingBy(w -> w, Collectors.collectingAndThen(Collectors.counting(), Long::intValue)));
-
-        enemyHarvesterCountMap = grid.getProteins().stream()
-                .filter(Entity::isHarvestedByEnemy)
-                .map(Entity::getType)
-                .collect(Collectors.groupingBy(w -> w, Collectors.collectingAndThen(Collectors.counting(), Long::intValue)));
-
-        List<EntityType> proteins = Arrays.asList(EntityType.A, EntityType.B, EntityType.C, EntityType.D);
-        proteins.forEach(protein -> {
-            myHarvesterCountMap.putIfAbsent(protein, 0);
-            enemyHarvesterCountMap.putIfAbsent(protein, 0);
-        });
-
-        timer.end("Post Turn Load");
-    }
-
-    private void firstTurn() {
-        int gridTiles = grid.width * grid.height;
-        // If the grid is at least 1/5 walls, it is 'closed'
-        long wallCount = grid.getEntitySet().stream().filter(entity -> entity.getType().equals(EntityType.WALL)).count();
-        debug("Wall count: " + wallCount);
-        double wallCountRatioNeededForClosedMap = 5.5;
-        boolean closedMap = wallCount > gridTiles / wallCountRatioNeededForClosedMap;
-        grid.setClosed(closedMap);
-        debug("Map is " + (grid.isClosed() ? "CLOSED" : "OPEN"));
-
-        double proteinCount = grid.getProteins().size();
-        double mapTiles = grid.getWidth() * grid.getHeight();
-        double proteinRatio = proteinCount / mapTiles;
-        grid.setProteinRation(proteinRatio);
-
-        grid.getEntitySet().forEach(entity -> entity.setCacheExpireTurn(0));
-
-        pathing.generatePaths();
-        behaviors.addAll(getBehaviors());
-    }
-
-    private void start() {
-        Scanner in = new Scanner(System.in);
-        int width = in.nextInt(); // columns in the game grid
-        int height = in.nextInt(); // rows in the game grid
-
-        grid = new Grid(width, height);
-        // Calculate pathing a little over half the map
-        pathing = new Pathing((grid.getWidth() + grid.getHeight()) / 2 + 4);
-
-        // game loop
-        while (true) {
-            int entityCount = in.nextInt();
-            newTurn();
-            timer.start("Reading Entities");
-            for (int i = 0; i < entityCount; i++) {
-                int x = in.nextInt();
-                int y = in.nextInt(); // grid coordinate
-                String type = in.next(); // WALL, ROOT, BASIC, TENTACLE, HARVESTER, SPORER, A, B, C, D
-                EntityType entityType = EntityType.valueOf(type);
-                Entity entity = grid.entityAt(x, y);
-                entity.setType(entityType);
-                if (entityType.isProtein()) {
-                    grid.getProteins().add(entity);
-                }
-                entity.setOwner(in.nextInt()); // 1 if your organ, 0 if target organ, -1 if neither
-                if (entityType.equals(EntityType.ROOT)) {
-                    if (entity.mine()) {
-                        myRoots.add(entity);
-                    } else {
-                        enemyRoots.add(entity);
-                    }
-                }
-                entity.setId(in.nextInt()); // id of this entity if it's an organ, 0 otherwise
-                String organDir = in.next(); // N,E,S,W or X if not an organ
-                if (!"X".equals(organDir)) {
-                    entity.setDirection(Direction.valueOf(organDir));
-                }
-                entity.setParentId(in.nextInt());
-                entity.setRootId(in.nextInt());
-                entitiesById.put(entity.getId(), entity);
-            }
-            timer.end("Reading Entities");
-            myA = in.nextInt();
-            myB = in.nextInt();
-            myC = in.nextInt();
-            myD = in.nextInt();
-            int enemyA = in.nextInt();
-            int enemyB = in.nextInt();
-            int enemyC = in.nextInt();
-            int enemyD = in.nextInt();
-
-
-            int requiredActionsCount = in.nextInt(); // your number of organisms, output an action for each one in any order
-
-            postTurnLoad();
-
-            if (turn == 1) {
-                firstTurn();
-            }
-
-            boolean shortCircuitGame = false;
-            if (turn == 5 && shortCircuitGame) {
-                throw new RuntimeException("Short circuit game for testing");
-            }
-            List<String> commandText = getCommands(requiredActionsCount).stream()
-                    .map(Command::getText)
-                    .toList();
-            timer.end("Turn " + turn);
-            commandText.forEach(System.out::println);
-            System.out.flush();
-        }
-    }
-
-    enum DebugCategory {
-        GENERAL,
-        PATHING,
-        EXPAND,
-        ATTACK,
-        HARVEST,
-        SPORING,
-        TIMER
-    }
-
-    Map<DebugCategory, Boolean> debugCategoryMap = Map.of(
-            DebugCategory.GENERAL, true,
-            DebugCategory.PATHING, true,
-            DebugCategory.EXPAND, false,
-            DebugCategory.ATTACK, false,
-            DebugCategory.HARVEST, false,
-            DebugCategory.SPORING, false,
-            DebugCategory.TIMER, true
-    );
-
-    Integer debugRootId = null;
-
-    private void debugf(Object message, Object... args) {
-        debug(String.format(message.toString(), args));
-    }
-
-    private void debug(Object message) {
-        debug(message, DebugCategory.GENERAL);
-    }
-
-    private void debug(Object message, DebugCategory category) {
-        debug(message, category, 0);
-    }
-
-    private void debug(Object message, DebugCategory category, int indentionLevel) {
-        boolean print = debugCategoryMap.get(category);
-        if (print) {
-            if (indentionLevel > 0) {
-                message = String.join("", Collections.nCopies(indentionLevel, "  ")) + message;
-            }
-            if (currentRootId != null) {
-                message = "[" + currentRootId + "] " + message;
-            }
-            if(debugRootId == null || debugRootId == currentRootId) {
-                System.err.println("[" + System.currentTimeMillis() + "]  " + message.toString());
-            }
-        }
-    }
-
-    public static void myAssert(boolean b, String message) {
-        if (!b) {
-            throw new RuntimeException(message);
-        }
-    }
-
-    private class Timer {
-        Map<Object, LocalDateTime> startTimeMap = new HashMap<>();
-
-        void start(Object obj) {
-            startTimeMap.put(obj, LocalDateTime.now());
-        }
-
-        void end(Object obj) {
-            // Display number of milliseconds
-            LocalDateTime startTime = startTimeMap.remove(obj);
-            LocalDateTime endTime = LocalDateTime.now();
-            myAssert(startTime != null, "Start time for timer " + obj + " is missing");
-            long millis = ChronoUnit.MILLIS.between(startTime, endTime);
-            debug(String.format("[%sms] Timer %s", millis, obj), DebugCategory.TIMER);
-        }
-    }
-
-    public static void main(String[] args) {
-        Player player = new Player();
-        player.start();
-    }
+	private final InputStream input;
+	private final PrintStream output;
+	private final Merit merit;
+	private Grid grid;
+	private Pathing pathing;
+	private final Profiler profiler = new Profiler();
+	private SpanListener spanListener;
+	private final HashMap<Integer, Entity> entitiesById = new HashMap<>();
+	private final HashMap<Integer, List<Entity>> rootToDescendentsMap = new HashMap<>();             // All descendents for a given root id
+	private final List<Entity> myRoots = new ArrayList<>();
+	private final List<Entity> enemyRoots = new ArrayList<>();
+	private final Map<Entity, TileMerit> buildRootMeritMap = new HashMap<>();   // Merit from tiles around a new root
+	private final Map<Entity, TileMerit> expandMeritMap = new HashMap<>();      // Pull toward each protein type
+	private final RootMeritCache rootMeritCache = new RootMeritCache();
+	private int myA;
+	private int myB;
+	private int myC;
+	private int myD;
+	private int turn = 0;
+	private Integer currentRootId;
+	private static final boolean showRootIdOnCommand = false;
+	private final List<Behavior> behaviors = new ArrayList<>();
+	private int[] behaviorChosenCounts; // Times each behavior's command was executed
+	private int[] behaviorOrder; // Most chosen first
+	// Counted from when the turn's input arrives, under the 1s / 50ms limits
+	private static final long FIRST_TURN_BUDGET_NANOS = 900_000_000L;
+	private static final long TURN_BUDGET_NANOS = 40_000_000L;
+	private long turnDeadlineNanos;
+	private static final long WARM_UP_NANOS = 400_000_000L;
+	private static final long WARM_UP_RESERVE_NANOS = 300_000_000L;
+	// Rolling cost estimate per behavior, by log2 of the root's frontier size
+	private static final int FRONTIER_BUCKETS = 12;
+	// Touches a candidate queue can fall behind before it scores everything again
+	private static final int TOUCH_LOG = 64;
+	private long[][] behaviorCostNanos;
+	// Turn 1 paths are searched on the common fork join pool when there are cores to spare. Tools that run many bots
+	// at once turn it off, the bots would otherwise share and contend for that one pool.
+	boolean parallelPathing = Runtime.getRuntime().availableProcessors() > 1;
+
+	Player(InputStream input, PrintStream output) {
+		this(input, output, new Merit());
+	}
+
+	Player(InputStream input, PrintStream output, Merit merit) {
+		this.input = input;
+		this.output = output;
+		this.merit = merit;
+	}
+
+	private class Grid {
+		// Tile state is stored flat, indexed by y * width + x. Entity is a view over these arrays.
+		private final Entity[] tiles;
+		private final List<Entity> tileList;
+		private final byte[] types, lastTypes, owners, directions;
+		private final int[] ids, parentIds, rootIds;
+		private final int[][] neighborIndexes;   // Up, down, left, right neighbor indexes for each tile
+		private final int[][] rays;              // Tiles out from each tile up to the first wall, by tile * 4 + direction
+		// Bitboards, one bit per tile index. Indexed by owner, facing organs by owner * 4 + direction, proteins by type - A.
+		private final long[] walls, buildable, notFirstColumn, notLastColumn, allTiles;
+		private final long[][] organs = new long[2][], tentacles = new long[8][], harvesters = new long[8][], attackedBy = new long[2][], harvestedBy = new long[2][], proteinMasks = new long[4][];
+		private final List<long[][]> tileMasks = List.of(organs, tentacles, harvesters, proteinMasks);
+		private final int[][] harvestedCounts = new int[2][4];
+		private final int[] lastRootIds;         // Root id of my organ on each tile last real turn, or -1
+		private final Map<Integer, long[]> reach = new HashMap<>();  // Tiles next to each of my organisms, by root id
+		private final Set<Entity> proteins;
+		private final List<Entity> ghostBuilds = new ArrayList<>();
+		// The last TOUCH_LOG tiles touched, touch n at n % TOUCH_LOG
+		private final int[] touched = new int[TOUCH_LOG];
+		private int touchedCount;
+		private int wallChanges;                // Walls move every path, candidate queues start over when this changes
+		private final int[] descendantCounts;   // Enemy organs' descendant counts as of the last turn
+		private double proteinRation;
+		private final int width, height;
+		private boolean closed;                 // If the map is open or closed off, we can take different strategies
+
+		public Grid(int width, int height) {
+			this.width = width;
+			this.height = height;
+			int size = width * height;
+			this.tiles = new Entity[size];
+			this.types = new byte[size];
+			this.lastTypes = new byte[size];
+			this.lastRootIds = new int[size];
+			Arrays.fill(lastRootIds, -1);
+			this.descendantCounts = new int[size];
+			this.owners = new byte[size];
+			this.directions = new byte[size];
+			this.ids = new int[size];
+			this.parentIds = new int[size];
+			this.rootIds = new int[size];
+			this.neighborIndexes = new int[size][];
+			this.rays = new int[size * 4][];
+			int words = (size + 63) / 64;
+			walls = new long[words];
+			buildable = new long[words];
+			notFirstColumn = new long[words];
+			notLastColumn = new long[words];
+			allTiles = new long[words];
+			for (long[][] masks : List.of(organs, tentacles, harvesters, attackedBy, harvestedBy, proteinMasks)) {
+				Arrays.setAll(masks, i -> new long[words]);
+			}
+			for (int i = 0; i < size; i++) {
+				allTiles[i >> 6] |= 1L << i;
+				notFirstColumn[i >> 6] |= i % width == 0 ? 0 : 1L << i;
+				notLastColumn[i >> 6] |= i % width == width - 1 ? 0 : 1L << i;
+			}
+			this.proteins = new LinkedHashSet<>();
+			for (int i = 0; i < size; i++) {
+				tiles[i] = new Entity(this, i % width, i / width, i);
+			}
+			for (Entity entity : tiles) {
+				int x = entity.getX(), y = entity.getY();
+				if (x > 0) {
+					Entity left = entityAt(x - 1, y);
+					left.setRight(entity);
+					entity.setLeft(left);
+				}
+				if (y > 0) {
+					Entity up = entityAt(x, y - 1);
+					up.setDown(entity);
+					entity.setUp(up);
+				}
+			}
+			for (Entity entity : tiles) {
+				entity.initNeighbors();
+				neighborIndexes[entity.getIndex()] = entity.neighbors().stream().mapToInt(Entity::getIndex).toArray();
+			}
+			tileList = List.of(tiles);
+			newTurn();
+		}
+
+		public int getWidth() {
+			return width;
+		}
+
+		public int getHeight() {
+			return height;
+		}
+
+		public int size() {
+			return tiles.length;
+		}
+
+		public List<Entity> getTiles() {
+			return tileList;
+		}
+
+		public Entity tile(int index) {
+			return tiles[index];
+		}
+
+		public int[] neighborIndexes(int index) {
+			return neighborIndexes[index];
+		}
+
+		public Stream<Entity> myEntitiesStream() {
+			return tileList.stream().filter(Entity::mine);
+		}
+
+		public Set<Entity> getProteins() {
+			return proteins;
+		}
+
+		public boolean isClosed() {
+			return closed;
+		}
+
+		public void setClosed(boolean closed) {
+			this.closed = closed;
+		}
+
+		public double getProteinRation() {
+			return proteinRation;
+		}
+
+		public void setProteinRation(double proteinRation) {
+			this.proteinRation = proteinRation;
+		}
+
+		public boolean isLowResources() {
+			return proteinRation < .7;
+		}
+
+		public Entity entityAt(int x, int y) {
+			if (x >= 0 && x < width && y >= 0 && y < height) {
+				return tiles[y * width + x];
+			}
+			throw new IllegalArgumentException(String.format("(%s,%s) is out of bounds", x, y));
+		}
+
+		// Clear tile state before reading a new turn's entities
+		public void newTurn() {
+			Arrays.fill(types, (byte) EntityType.EMPTY.ordinal());
+			Arrays.fill(owners, (byte) Owner.NOBODY);
+			Arrays.fill(directions, (byte) -1);
+			Arrays.fill(ids, 0);
+			Arrays.fill(parentIds, 0);
+			Arrays.fill(rootIds, 0);
+			for (Entity entity : tiles) {
+				entity.reset();
+			}
+		}
+
+		public boolean test(long[] mask, int index) {
+			return (mask[index >> 6] & 1L << index) != 0;
+		}
+
+		private void set(long[] mask, int index, boolean value) {
+			mask[index >> 6] = value ? mask[index >> 6] | 1L << index : mask[index >> 6] & ~(1L << index);
+		}
+
+		public int harvestedCount(int owner, EntityType protein) {
+			return harvestedCounts[owner][protein.ordinal() - EntityType.A.ordinal()];
+		}
+
+		private void setTileMasks(int i) {
+			for (long[][] masks : tileMasks) {
+				for (long[] mask : masks) {
+					set(mask, i, false);
+				}
+			}
+			EntityType type = Entity.TYPES[types[i]];
+			set(walls, i, type == EntityType.WALL);
+			if (type.isProtein()) {
+				set(proteinMasks[type.ordinal() - EntityType.A.ordinal()], i, true);
+			} else if (owners[i] != Owner.NOBODY) {
+				set(organs[owners[i]], i, true);
+				if (type == EntityType.TENTACLE) {
+					set(tentacles[owners[i] * 4 + directions[i]], i, true);
+				} else if (type == EntityType.HARVESTER) {
+					set(harvesters[owners[i] * 4 + directions[i]], i, true);
+				}
+			}
+		}
+
+		private void refreshStatus(int i) {
+			for (int owner = 0; owner < 2; owner++) {
+				boolean attacked = false, harvested = false;
+				for (int n : neighborIndexes[i]) {
+					if (owners[n] == owner && tiles[n].entityInFront() == tiles[i]) {
+						attacked |= types[n] == EntityType.TENTACLE.ordinal();
+						harvested |= types[n] == EntityType.HARVESTER.ordinal();
+					}
+				}
+				set(attackedBy[owner], i, attacked);
+				set(harvestedBy[owner], i, harvested && Entity.TYPES[types[i]].isProtein());
+			}
+			set(buildable, i, !test(walls, i) && !test(organs[0], i) && !test(organs[1], i) && !test(attackedBy[Owner.ENEMY], i));
+		}
+
+		private void countHarvested(int i, int sign) {
+			for (int owner = 0; owner < 2; owner++) {
+				for (int protein = 0; protein < 4; protein++) {
+					if (test(harvestedBy[owner], i) && test(proteinMasks[protein], i)) {
+						harvestedCounts[owner][protein] += sign;
+					}
+				}
+			}
+		}
+
+		// Applies a change to tile i, only it and its neighbors can change status
+		public void updateTile(int i) {
+			countHarvested(i, -1);
+			for (int n : neighborIndexes[i]) {
+				countHarvested(n, -1);
+			}
+			setTileMasks(i);
+			refreshStatus(i);
+			countHarvested(i, 1);
+			for (int n : neighborIndexes[i]) {
+				refreshStatus(n);
+				countHarvested(n, 1);
+			}
+		}
+
+		private int myRootId(int i) {
+			return owners[i] == Owner.ME ? rootIds[i] : -1;
+		}
+
+		// Moves each organism's reach by the organs that appeared or died since the last real turn
+		public void updateReach() {
+			for (int i = 0; i < lastRootIds.length; i++) {
+				int was = lastRootIds[i], is = myRootId(i);
+				if (was == is) {
+					continue;
+				}
+				if (is >= 0) {
+					long[] mask = reach.computeIfAbsent(is, id -> new long[walls.length]);
+					for (int n : neighborIndexes[i]) {
+						set(mask, n, true);
+					}
+				}
+				if (was >= 0) {
+					for (int n : neighborIndexes[i]) {
+						boolean reached = false;
+						for (int m : neighborIndexes[n]) {
+							reached |= myRootId(m) == was;
+						}
+						set(reach.get(was), n, reached);
+					}
+				}
+				lastRootIds[i] = is;
+			}
+		}
+
+		public int frontierSize(long[] reach) {
+			int size = 0;
+			for (int w = 0; w < reach.length; w++) {
+				size += Long.bitCount(reach[w] & buildable[w]);
+			}
+			return size;
+		}
+
+		// Ors in the tiles the organs face, masking off shifts across a row end
+		private void orFacing(long[][] facing, int owner, long[] into) {
+			for (Direction direction : Entity.DIRECTIONS) {
+				int shift = switch (direction) {
+					case N -> -width;
+					case S -> width;
+					case E -> 1;
+					case W -> -1;
+				};
+				long[] source = facing[owner * 4 + direction.ordinal()];
+				long[] edge = shift == 1 ? notFirstColumn : shift == -1 ? notLastColumn : allTiles;
+				for (int w = 0; w < into.length; w++) {
+					long shifted = shift > 0
+							? source[w] << shift | (w > 0 ? source[w - 1] >>> 64 - shift : 0)
+							: source[w] >>> -shift | (w + 1 < into.length ? source[w + 1] << 64 + shift : 0);
+					into[w] |= shifted & edge[w];
+				}
+			}
+		}
+
+		public void updateMasks() {
+			for (int i = 0; i < types.length; i++) {
+				setTileMasks(i);
+			}
+			for (int owner = 0; owner < 2; owner++) {
+				Arrays.fill(attackedBy[owner], 0);
+				Arrays.fill(harvestedBy[owner], 0);
+				orFacing(tentacles, owner, attackedBy[owner]);
+				orFacing(harvesters, owner, harvestedBy[owner]);
+				for (int protein = 0; protein < 4; protein++) {
+					harvestedCounts[owner][protein] = 0;
+					for (int w = 0; w < walls.length; w++) {
+						harvestedCounts[owner][protein] += Long.bitCount(harvestedBy[owner][w] & proteinMasks[protein][w]);
+					}
+				}
+				for (int w = 0; w < walls.length; w++) {
+					harvestedBy[owner][w] &= proteinMasks[0][w] | proteinMasks[1][w] | proteinMasks[2][w] | proteinMasks[3][w];
+				}
+			}
+			for (int w = 0; w < walls.length; w++) {
+				buildable[w] = allTiles[w] & ~walls[w] & ~organs[0][w] & ~organs[1][w] & ~attackedBy[Owner.ENEMY][w];
+			}
+		}
+
+		// Only walls stop a spore for good, so rays are built on turn 1 and again when a wall appears or goes away
+		public void buildRays() {
+			int[] ray = new int[Math.max(width, height)];
+			for (Entity tile : tiles) {
+				for (Direction direction : Entity.DIRECTIONS) {
+					int length = 0;
+					for (Entity next = tile.entityInDirection(direction); next != null && !next.getType().equals(EntityType.WALL); next = next.entityInDirection(direction)) {
+						ray[length++] = next.getIndex();
+					}
+					rays[tile.getIndex() * 4 + direction.ordinal()] = Arrays.copyOf(ray, length);
+				}
+			}
+		}
+
+		public int[] ray(Entity from, Direction direction) {
+			return rays[from.getIndex() * 4 + direction.ordinal()];
+		}
+
+		// Types that differ from last turn's real (non ghost) state
+		public List<Entity> changedTiles() {
+			List<Entity> changed = new ArrayList<>();
+			for (int i = 0; i < types.length; i++) {
+				if (types[i] != lastTypes[i]) {
+					changed.add(tiles[i]);
+				}
+			}
+			return changed;
+		}
+
+		// Record this turn's real state before any ghost builds for next turn's reconciliation
+		public void saveTurnState() {
+			System.arraycopy(types, 0, lastTypes, 0, types.length);
+		}
+
+		public void buildGhostEntity(Entity entity, EntityType type, Direction direction) {
+			if (entity.getType().isProtein() && !type.isProtein()) {
+				proteins.remove(entity);
+			}
+			entity.setType(type);
+			entity.setOwner(Owner.ME);
+			entity.setDirection(direction);
+			updateTile(entity.getIndex());
+			ghostBuilds.add(entity);
+			touch(entity.getIndex());
+		}
+
+		// Undoes ghost builds past the first keep, they only go on tiles with no owner or direction
+		public void revertGhostBuilds(int keep) {
+			while (ghostBuilds.size() > keep) {
+				int i = ghostBuilds.remove(ghostBuilds.size() - 1).getIndex();
+				types[i] = lastTypes[i];
+				owners[i] = Owner.NOBODY;
+				directions[i] = -1;
+				updateTile(i);
+				touch(i);
+			}
+		}
+
+		// Logs that tile i changed and expires what read it: harvestable answers within 9, root merits within 3 and
+		// expand merits within 6. Paths are never shorter than straight lines, so path changes are covered too.
+		public void touch(int i) {
+			touched[touchedCount++ & (TOUCH_LOG - 1)] = i;
+			int x = i % width, y = i / width;
+			for (int ty = Math.max(0, y - 9); ty <= Math.min(height - 1, y + 9); ty++) {
+				for (int tx = Math.max(0, x - 9 + Math.abs(ty - y)); tx <= Math.min(width - 1, x + 9 - Math.abs(ty - y)); tx++) {
+					Entity closeBy = tiles[ty * width + tx];
+					closeBy.setProteinHarvestable(null);
+					int distance = Math.abs(tx - x) + Math.abs(ty - y);
+					if (distance <= 3) {
+						closeBy.setCacheExpireTouch(touchedCount);
+					}
+					if (distance <= 6) {
+						closeBy.setExpandCacheExpireTouch(touchedCount);
+					}
+				}
+			}
+		}
+	}
+
+	private class Pathing {
+
+		private final PathTable paths;
+		// Paths from each protein's neighbors with the protein impassable, row protein index * 4 + neighbor position
+		private final PathTable proteinNeighborPaths;
+		private final int maxDepth;
+		private final int proteinNeighborMaxDepth = 8;
+
+		public Pathing(int maxDepth) {
+			this.maxDepth = maxDepth;
+			this.paths = new PathTable(grid.size());
+			this.proteinNeighborPaths = new PathTable(grid.size() * 4);
+		}
+
+		public int getProteinNeighborMaxDepth() {
+			return proteinNeighborMaxDepth;
+		}
+
+		public Integer distance(Entity from, Entity to) {
+			return paths.distance(from.getIndex(), to);
+		}
+
+		public Integer proteinImpassableDistance(Entity protein, Entity proteinNeighbor, Entity to) {
+			return proteinNeighborPaths.distance(proteinNeighborRow(protein, proteinNeighbor), to);
+		}
+
+		public List<Entity> entitiesWithinDistance(Entity from, Integer minSearchDistance, Integer maxSearchDistance) {
+			return paths.withinDistance(from.getIndex(), minSearchDistance, maxSearchDistance);
+		}
+
+		// Every tile the search from this one reached, nearest first, for index loops up to countWithinDistance
+		public List<Entity> entitiesByDistance(Entity from) {
+			return paths.targets(from.getIndex());
+		}
+
+		public int countWithinDistance(Entity from, int maxSearchDistance) {
+			return paths.countWithinDistance(from.getIndex(), maxSearchDistance);
+		}
+
+		private List<Entity> entitiesWithinDistance(Entity from, Entity impassableProtein, Integer minSearchDistance, Integer maxSearchDistance) {
+			return proteinNeighborPaths.withinDistance(proteinNeighborRow(impassableProtein, from), minSearchDistance, maxSearchDistance);
+		}
+
+		public List<Entity> proteinEntitiesWithinDistance(Entity from, Entity protein) {
+			return entitiesWithinDistance(from, protein, null, proteinNeighborMaxDepth);
+		}
+
+		// Return the entities within proteinNeighborMaxDepth that are reachable when the protein is passable and when it is impassable
+		public Tuple<List<Entity>, List<Entity>> proteinReachableEntityDifference(Entity protein, Entity proteinNeighbor) {
+			List<Entity> reachable = entitiesWithinDistance(proteinNeighbor, null, proteinNeighborMaxDepth);
+			List<Entity> reachableWithoutProtein = proteinEntitiesWithinDistance(proteinNeighbor, protein);
+			return new Tuple<>(reachable, reachableWithoutProtein);
+		}
+
+		private int proteinNeighborRow(Entity protein, Entity proteinNeighbor) {
+			int[] neighbors = grid.neighborIndexes(protein.getIndex());
+			for (int i = 0; i < neighbors.length; i++) {
+				if (neighbors[i] == proteinNeighbor.getIndex()) {
+					return protein.getIndex() * 4 + i;
+				}
+			}
+			throw new IllegalArgumentException(proteinNeighbor + " is not next to " + protein);
+		}
+
+		public void generatePaths() {
+			profiler.start("Pathing");
+			// Each source only writes its own rows, so sources split across the common fork join pool without
+			// contention and the tables come out the same whichever thread searched them
+			if (parallelPathing) {
+				grid.getTiles().parallelStream().forEach(this::generatePaths);
+			} else {
+				grid.getTiles().forEach(this::generatePaths);
+			}
+			profiler.end("Pathing");
+		}
+
+		public void generatePaths(Entity entity) {
+			generateRow(entity.getIndex());
+			generateProteinNeighborRows(entity);
+		}
+
+		// Generate protein's neighbor paths given that the protein is impassable
+		private void generateProteinNeighborRows(Entity protein) {
+			for (int i = 0; i < 4; i++) {
+				generateProteinNeighborRow(protein.getIndex() * 4 + i);
+			}
+		}
+
+		// Matches a full generatePaths() after tiles changed type. Only walls block searches, so only rows that reached a
+		// new wall or next to a removed one are searched again, and protein rows of tiles that became or stopped being one.
+		public void repairPaths(List<Entity> changedTiles) {
+			profiler.start("Path Repair");
+			for (Entity tile : changedTiles) {
+				int index = tile.getIndex();
+				EntityType lastType = Entity.TYPES[grid.lastTypes[index]];
+				boolean wall = tile.getType().equals(EntityType.WALL);
+				if (wall != lastType.equals(EntityType.WALL)) {
+					for (int row = 0; row < grid.size(); row++) {
+						if (paths.isAffectedBy(row, index, wall)) {
+							generateRow(row);
+						}
+					}
+					for (int row = 0; row < grid.size() * 4; row++) {
+						if (proteinNeighborPaths.isAffectedBy(row, index, wall)) {
+							generateProteinNeighborRow(row);
+						}
+					}
+					generateRow(index);
+					// Neighboring proteins gain or lose this tile as a search source
+					for (int neighbor : grid.neighborIndexes(index)) {
+						generateProteinNeighborRows(grid.tile(neighbor));
+					}
+				}
+				if (tile.getType().isProtein() != lastType.isProtein()) {
+					generateProteinNeighborRows(tile);
+				}
+			}
+			profiler.end("Path Repair");
+		}
+
+		private void generateRow(int row) {
+			if (grid.tile(row).getType().equals(EntityType.WALL)) {
+				paths.clear(row);
+			} else {
+				paths.generate(row, row, maxDepth, -1);
+			}
+		}
+
+		private void generateProteinNeighborRow(int row) {
+			Entity protein = grid.tile(row / 4);
+			int[] neighbors = grid.neighborIndexes(protein.getIndex());
+			if (protein.getType().isProtein() && grid.isClosed() && row % 4 < neighbors.length
+					&& !grid.tile(neighbors[row % 4]).getType().equals(EntityType.WALL)) {
+				proteinNeighborPaths.generate(row, neighbors[row % 4], proteinNeighborMaxDepth, protein.getIndex());
+			} else {
+				proteinNeighborPaths.clear(row);
+			}
+		}
+
+	}
+
+	// Breadth first search results, one row per source. A row's arrays are reused when it is generated again.
+	private class PathTable {
+		private static final short UNREACHABLE = -1;
+		private final short[][] distances;          // Distance from the row's source to each tile index, 0 for the source itself
+		private final List<List<Entity>> sortedTargets;
+		private final ThreadLocal<int[]> queues = ThreadLocal.withInitial(() -> new int[grid.size()]);
+
+		public PathTable(int rows) {
+			distances = new short[rows][];
+			sortedTargets = new ArrayList<>(Collections.nCopies(rows, null));
+		}
+
+		public Integer distance(int row, Entity to) {
+			short[] rowDistances = distances[row];
+			// There is no path to self, saying so keeps the source out of query results
+			return rowDistances == null || rowDistances[to.getIndex()] <= 0 ? null : (int) rowDistances[to.getIndex()];
+		}
+
+		public List<Entity> targets(int row) {
+			List<Entity> targets = sortedTargets.get(row);
+			return targets == null ? Collections.emptyList() : targets;
+		}
+
+		public int countWithinDistance(int row, int maxSearchDistance) {
+			List<Entity> targets = sortedTargets.get(row);
+			return targets == null ? 0 : firstIndexBeyond(row, targets, maxSearchDistance);
+		}
+
+		public List<Entity> withinDistance(int row, Integer minSearchDistance, Integer maxSearchDistance) {
+			myAssert(minSearchDistance != null || maxSearchDistance != null, "Min or max search distance must be defined");
+			myAssert(minSearchDistance == null || maxSearchDistance == null || minSearchDistance < maxSearchDistance, "Min search distance must be greater than max search distance");
+			List<Entity> targets = sortedTargets.get(row);
+			if (targets == null) {
+				return Collections.emptyList();
+			}
+			int startIndex = minSearchDistance == null ? 0 : firstIndexBeyond(row, targets, minSearchDistance - 1);
+			int endIndex = maxSearchDistance == null ? targets.size() : firstIndexBeyond(row, targets, maxSearchDistance);
+			return targets.subList(startIndex, endIndex);
+		}
+
+		// A new wall changes a search that reached it, a removed wall one that reached next to it
+		public boolean isAffectedBy(int row, int tile, boolean nowWall) {
+			short[] rowDistances = distances[row];
+			if (rowDistances == null) {
+				return false;
+			}
+			if (nowWall) {
+				return rowDistances[tile] != UNREACHABLE;
+			}
+			for (int neighbor : grid.neighborIndexes(tile)) {
+				if (rowDistances[neighbor] != UNREACHABLE) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		public void clear(int row) {
+			distances[row] = null;
+			sortedTargets.set(row, null);
+		}
+
+		// Targets are in BFS order, find the first one further than the given distance
+		private int firstIndexBeyond(int row, List<Entity> targets, int distance) {
+			short[] rowDistances = distances[row];
+			int low = 0, high = targets.size();
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (rowDistances[targets.get(mid).getIndex()] <= distance) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+		// Past maxDepth, tiles in line with the source are still searched (without an impassable tile) so sporers see far
+		public void generate(int row, int source, int maxDepth, int impassable) {
+			if (distances[row] == null) {
+				distances[row] = new short[grid.size()];
+				sortedTargets.set(row, new ArrayList<>());
+			}
+			short[] rowDistances = distances[row];
+			List<Entity> targets = sortedTargets.get(row);
+			Arrays.fill(rowDistances, UNREACHABLE);
+			targets.clear();
+			rowDistances[source] = 0;
+			int sourceX = source % grid.getWidth(), sourceY = source / grid.getWidth();
+			int[] queue = queues.get();
+			int head = 0, tail = 0;
+			queue[tail++] = source;
+			while (head < tail) {
+				int current = queue[head++];
+				int distance = rowDistances[current];
+				for (int neighbor : grid.neighborIndexes(current)) {
+					if (rowDistances[neighbor] != UNREACHABLE || neighbor == impassable || grid.types[neighbor] == EntityType.WALL.ordinal()) {
+						continue;
+					}
+					boolean inLine = neighbor % grid.getWidth() == sourceX ^ neighbor / grid.getWidth() == sourceY;
+					if (distance < maxDepth || (impassable < 0 && inLine)) {
+						rowDistances[neighbor] = (short) (distance + 1);
+						queue[tail++] = neighbor;
+						targets.add(grid.tile(neighbor));
+					}
+				}
+			}
+		}
+	}
+
+	public static class Tuple<X, Y> {
+		public final X x;
+		public final Y y;
+
+		public Tuple(X x, Y y) {
+			this.x = x;
+			this.y = y;
+		}
+	}
+
+	private enum Direction {
+		N, S, E, W
+	}
+
+	private static class Owner {
+		public static final int ME = 1;
+		public static final int ENEMY = 0;
+		public static final int NOBODY = -1;
+	}
+
+	private enum EntityType {
+		EMPTY, WALL, A, B, C, D,
+		BASIC(1, 0, 0, 0),
+		HARVESTER(0, 0, 1, 1),
+		TENTACLE(0, 1, 1, 0),
+		SPORER(0, 1, 0, 1),
+		ROOT(1, 1, 1, 1);
+
+		private final int[] cost;
+
+		EntityType() {
+			this(0, 0, 0, 0);
+		}
+
+		EntityType(int a, int b, int c, int d) {
+			this.cost = new int[]{a, b, c, d};
+		}
+
+		private static final List<EntityType> PROTEIN_TYPES = Arrays.asList(A, B, C, D);
+
+		public boolean isProtein() {
+			return PROTEIN_TYPES.contains(this);
+		}
+
+		public int[] getCost() {
+			return cost;
+		}
+	}
+
+	private static class EntityPredicates {
+		public static final Predicate<Entity> SHOOT_ROOT_OVER = entity -> entity.getType().isProtein() || entity.getType().equals(EntityType.EMPTY);
+	}
+
+	private static class Entity {
+		private static final EntityType[] TYPES = EntityType.values();
+		private static final Direction[] DIRECTIONS = Direction.values();
+		private final int x;
+		private final int y;
+		private final int index;            // Position in the grid's tile arrays, y * width + x
+		private final Grid grid;
+		private Entity up, down, left, right;
+		private final List<Entity> children;
+		private List<Entity> neighbors;
+		private int cacheExpireTouch;       // Grid touch count after the last touch within 3, answers cached before it are stale
+		private int expandCacheExpireTouch; // Same, but for touches as far as expand merits look
+
+		// Cached values
+		private int descendantCount;        // Number of descendants for this entity (relevant for kills), -1 until calculated
+		private Boolean proteinHarvestable; // Kept until a tile close enough to change the answer is touched
+
+		public Entity(Grid grid, int x, int y, int index) {
+			this.grid = grid;
+			this.x = x;
+			this.y = y;
+			this.index = index;
+			children = new ArrayList<>();
+		}
+
+		// Tile state lives in the grid and is cleared there, only reset what is cached on the entity
+		public void reset() {
+			children.clear();
+			// Cached calculated values
+			descendantCount = -1;
+		}
+
+
+		public int getId() {
+			return grid.ids[index];
+		}
+
+		public void setId(int id) {
+			grid.ids[index] = id;
+		}
+
+		public int getParentId() {
+			return grid.parentIds[index];
+		}
+
+		public void setParentId(int parentId) {
+			grid.parentIds[index] = parentId;
+		}
+
+		public int getRootId() {
+			return grid.rootIds[index];
+		}
+
+		public void setRootId(int rootId) {
+			grid.rootIds[index] = rootId;
+		}
+
+		public EntityType getType() {
+			return TYPES[grid.types[index]];
+		}
+
+		public void setType(EntityType type) {
+			grid.types[index] = (byte) type.ordinal();
+		}
+
+		public List<Entity> getChildren() {
+			return children;
+		}
+
+		public int getIndex() {
+			return index;
+		}
+
+		public int getX() {
+			return x;
+		}
+
+		public int getY() {
+			return y;
+		}
+
+		public Grid grid() {
+			return grid;
+		}
+
+		public Entity getUp() {
+			return up;
+		}
+
+		public void setUp(Entity up) {
+			this.up = up;
+		}
+
+		public Entity getDown() {
+			return down;
+		}
+
+		public void setDown(Entity down) {
+			this.down = down;
+		}
+
+		public Entity getLeft() {
+			return left;
+		}
+
+		public void setLeft(Entity left) {
+			this.left = left;
+		}
+
+		public Entity getRight() {
+			return right;
+		}
+
+		public void setRight(Entity right) {
+			this.right = right;
+		}
+
+		public void setOwner(int owner) {
+			grid.owners[index] = (byte) owner;
+		}
+
+		public int getOwner() {
+			return grid.owners[index];
+		}
+
+		public Player.Direction getDirection() {
+			int direction = grid.directions[index];
+			return direction < 0 ? null : DIRECTIONS[direction];
+		}
+
+		public void setDirection(Player.Direction direction) {
+			grid.directions[index] = (byte) (direction == null ? -1 : direction.ordinal());
+		}
+
+		public boolean mine() {
+			return Owner.ME == getOwner();
+		}
+
+		public boolean enemy() {
+			return Owner.ENEMY == getOwner();
+		}
+
+		public boolean unowned() {
+			return Owner.NOBODY == getOwner();
+		}
+
+		public int getCacheExpireTouch() {
+			return cacheExpireTouch;
+		}
+
+		public void setCacheExpireTouch(int cacheExpireTouch) {
+			this.cacheExpireTouch = cacheExpireTouch;
+		}
+
+		public int getExpandCacheExpireTouch() {
+			return expandCacheExpireTouch;
+		}
+
+		public void setExpandCacheExpireTouch(int expandCacheExpireTouch) {
+			this.expandCacheExpireTouch = expandCacheExpireTouch;
+		}
+
+		public void initNeighbors() {
+			neighbors = Stream.of(up, down, left, right).filter(Objects::nonNull).toList();
+		}
+
+		public List<Entity> neighbors() {
+			return neighbors;
+		}
+
+		public Stream<Entity> neighborsStream() {
+			return neighbors.stream();
+		}
+
+		public Entity myNeighbor(int rootId) {
+			return myNeighbor(tile -> rootId == tile.getRootId());
+		}
+
+		public Entity myNeighbor(Predicate<Entity> predicate) {
+			return neighborsStream().filter(Entity::mine).filter(predicate).findFirst().orElse(null);
+		}
+
+		public Entity entityInDirection(Player.Direction direction) {
+			return switch (direction) {
+				case N -> up;
+				case S -> down;
+				case E -> right;
+				case W -> left;
+			};
+		}
+
+		public Entity entityInFront() {
+			Direction direction = getDirection();
+			if (direction == null) {
+				return null;
+			}
+			return entityInDirection(direction);
+		}
+
+		public int getStraightDistanceBetween(Entity other) {
+			return Math.abs(other.x - x) + Math.abs(other.y - y);
+		}
+
+		public boolean isInLineWith(Entity other) {
+			return x == other.getX() ^ y == other.getY();
+		}
+
+		public boolean isEmpty() {
+			return getType().equals(Player.EntityType.EMPTY);
+		}
+
+		public boolean isBuildable() {
+			return grid.test(grid.buildable, index);
+		}
+
+		public boolean isAttackedByMe() {
+			return grid.test(grid.attackedBy[Owner.ME], index);
+		}
+
+		public boolean isAttackedByEnemy() {
+			return grid.test(grid.attackedBy[Owner.ENEMY], index);
+		}
+
+		public Boolean isProteinHarvestable() {
+			return proteinHarvestable;
+		}
+
+		public void setProteinHarvestable(Boolean proteinHarvestable) {
+			this.proteinHarvestable = proteinHarvestable;
+		}
+
+		public Player.Direction directionTo(Entity other) {
+			int xDiff = other.getX() - x;
+			if (xDiff != 0) {
+				return xDiff > 0 ? Player.Direction.E : Player.Direction.W;
+			}
+			return other.getY() - y > 0 ? Player.Direction.S : Player.Direction.N;
+		}
+
+		public int getDescendantCount() {
+			if (descendantCount < 0) {
+				descendantCount = children.size() + children.stream().mapToInt(Entity::getDescendantCount).sum();
+			}
+			return descendantCount;
+		}
+
+		public boolean isHarvestedByMe() {
+			return grid.test(grid.harvestedBy[Owner.ME], index);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("[Entity %s,%s  %s]", x, y, getType());
+		}
+	}
+
+	private interface Behavior {
+		// Returns null if there isn't a good command for this behavior
+		Player.Command getCommand(int rootId);
+	}
+
+	// Attack merits read owners within 3 and the descendant counts of enemies there
+	private class AttackBehavior extends CandidateQueue {
+		AttackBehavior() {
+			super(3, 0);
+		}
+
+		@Override
+		public Command getCommand(int rootId) {
+			Player.EntityType buildType = EntityType.TENTACLE;
+			if (!canBuild(buildType)) {
+				return null;
+			}
+			if (debugging(DebugCategory.GENERAL)) {
+				debug("Starting %s", this);
+			}
+			int best = best(rootId);
+			if (best < 0) {
+				return null;
+			}
+			Entity to = grid.tile(best >> 2);
+			return new GrowCommand(rootId, to.myNeighbor(rootId), to, buildType, Entity.DIRECTIONS[best & 3], merit(best));
+		}
+
+		@Override
+		void score(Entity entity) {
+			if (!isEnemyWithinDistance(entity, 3)) {
+				return;
+			}
+			for (Direction direction : Entity.DIRECTIONS) {
+				Entity neighbor = entity.entityInDirection(direction);
+				if (neighbor != null && !neighbor.mine() && !neighbor.getType().equals(EntityType.WALL)) {
+					offer(entity, direction, calculateAttackMerit(entity, direction));
+				}
+			}
+		}
+
+		public String toString() {
+			return "[Attack Behavior]";
+		}
+	}
+
+
+	/**
+	 * When an organism doesn't have a sporer, create a new one so we can branch out.
+	 */
+	private class CreateSporerBehavior extends CandidateQueue {
+		private final BuildCandidate best = new BuildCandidate();
+
+		// Root merits read the root count and whether stocks allow another root
+		CreateSporerBehavior() {
+			super(3, 2);
+		}
+
+		@Override
+		public Command getCommand(int rootId) {
+			if(!canBuild(EntityType.SPORER)) {
+				return null;
+			}
+			if (debugging(DebugCategory.GENERAL)) {
+				debug("Starting %s", this);
+			}
+			int mostMerit = best(rootId);
+
+			if (mostMerit >= 0) {
+				Entity buildTo = grid.tile(mostMerit >> 2);
+				return new GrowCommand(rootId, buildTo.myNeighbor(rootId), buildTo, EntityType.SPORER, Entity.DIRECTIONS[mostMerit & 3], merit(mostMerit));
+			}
+			return null;
+		}
+
+		// A candidate is the best root its spore can land on
+		@Override
+		void score(Entity tile) {
+			for (Direction direction : Entity.DIRECTIONS) {
+				best.reset();
+				offerRootLocations(tile, direction, false, best);
+				if (best.found()) {
+					offer(tile, direction, best.merit());
+				}
+			}
+		}
+
+		@Override
+		void inputs(double[] inputs) {
+			inputs[0] = myRoots.size();
+			inputs[1] = shouldConsiderNewRoot(true) ? 1 : 0;
+		}
+
+		// Root merits read within 3 of every tile the spore passes
+		@Override
+		boolean reads(Entity tile, Entity touched) {
+			return Math.abs(tile.getX() - touched.getX()) <= 3 || Math.abs(tile.getY() - touched.getY()) <= 3;
+		}
+
+		public String toString() {
+			return "[Create Sporer Behavior]";
+		}
+	}
+
+	private class CreateNewRootBehavior implements Player.Behavior {
+		private final BuildCandidate best = new BuildCandidate();
+
+		@Override
+		public Player.Command getCommand(int rootId) {
+			if (shouldConsiderNewRoot(false)) {
+				if (debugging(DebugCategory.GENERAL)) {
+					debug("Starting %s", this);
+				}
+				BuildCandidate nextRoot = getRootExpandLocation(rootId, best);
+				if (nextRoot != null) {
+					return new Player.SporeCommand(rootId, nextRoot.from(), nextRoot.to(), nextRoot.merit());
+				}
+			}
+			return null;
+		}
+
+		public String toString() {
+			return "[Create New Root Behavior]";
+		}
+	}
+
+	// Whether the protein is harvestable reads owners within 9 of it, the rest of the merit is closer
+	private class BuildHarvesterBehavior extends CandidateQueue {
+		BuildHarvesterBehavior() {
+			super(10, 4);
+		}
+
+		@Override
+		public Player.Command getCommand(int rootId) {
+			if (!canBuild(Player.EntityType.HARVESTER)) {
+				return null;
+			}
+			if (debugging(DebugCategory.HARVEST)) {
+				debug(DebugCategory.HARVEST, 0, "Starting %s", this);
+			}
+			int best = best(rootId);
+			if (best < 0) {
+				return null;
+			}
+			Entity to = grid.tile(best >> 2);
+			return new GrowCommand(rootId, to.myNeighbor(rootId), to, EntityType.HARVESTER, Entity.DIRECTIONS[best & 3], merit(best));
+		}
+
+		@Override
+		void score(Entity entity) {
+			for (Direction direction : Entity.DIRECTIONS) {
+				Entity pointedAt = entity.entityInDirection(direction);
+				if (pointedAt != null && pointedAt.getType().isProtein() && !pointedAt.isHarvestedByMe()
+						&& isProteinCurrentlyHarvestable(pointedAt)) {
+					offer(entity, direction, getHarvesterExpandMeritResult(entity, direction));
+				}
+			}
+		}
+
+		@Override
+		void inputs(double[] inputs) {
+			for (int protein = 0; protein < 4; protein++) {
+				inputs[protein] = getHarvesterNeedMerit(EntityType.PROTEIN_TYPES.get(protein));
+			}
+		}
+
+		public String toString() {
+			return "[Build Harvester Behavior]";
+		}
+	}
+
+	// Expand merits read proteins within 6, and how much of each protein type and whether any is left
+	private class ExpandToSpaceBehavior extends CandidateQueue {
+		ExpandToSpaceBehavior() {
+			super(6, 9);
+		}
+
+		@Override
+		public Command getCommand(int rootId) {
+			// Get adjacent buildable spaces, get merit ranking for building there, sort by ranking
+			if (debugging(DebugCategory.EXPAND)) {
+				debug(DebugCategory.EXPAND, 0, "Starting %s", this);
+			}
+			int best = best(rootId);
+			Player.EntityType buildType = getArbitraryBuildableType();
+			if (best < 0 || buildType == null) {
+				return null;
+			}
+			Entity to = grid.tile(best >> 2);
+			return new GrowCommand(rootId, to.myNeighbor(rootId), to, buildType, Direction.N, merit(best));
+		}
+
+		@Override
+		void score(Entity entity) {
+			offer(entity, null, calculateExpandMerit(entity));
+		}
+
+		@Override
+		void inputs(double[] inputs) {
+			for (int protein = 0; protein < 4; protein++) {
+				inputs[protein] = getExpandProteinMultiplier(protein);
+				inputs[4 + protein] = getProteinCount(EntityType.PROTEIN_TYPES.get(protein)) == 0 ? 1 : 0;
+			}
+			inputs[8] = turn >= 70 ? 1 : 0;
+		}
+
+		public String toString() {
+			return "[Expand To Space Behavior]";
+		}
+	}
+
+	private static class WaitBehavior implements Player.Behavior {
+		@Override
+		public Command getCommand(int rootId) {
+			return new WaitCommand(rootId);
+		}
+
+		public String toString() {
+			return "[Wait Behavior]";
+		}
+	}
+
+	private interface Command {
+		void write(CommandWriter out);
+
+		default String getText() {
+			CommandWriter out = new CommandWriter();
+			write(out);
+			return out.toString();
+		}
+
+		double merit();
+
+		default Player.EntityType getBuildType() {
+			return null;
+		}
+
+		default Player.Entity getBuildFrom() {
+			return null;
+		}
+
+		int rootId();
+
+		// Called when the command is chosen to be executed. Can call ghostEntity() if it is creating a new entity.
+		void updateState();
+	}
+
+	private record WaitCommand(int rootId) implements Player.Command {
+		@Override
+		public void write(CommandWriter out) {
+			out.append("WAIT");
+			if (showRootIdOnCommand) {
+				out.append(' ').append(rootId).append(" WAIT");
+			}
+		}
+
+		@Override
+		public double merit() {
+			return 0;
+		}
+
+		@Override
+		public void updateState() {
+		}
+
+		public String toString() {
+			return String.format("[%.2f] WAIT", merit());
+		}
+	}
+
+	private record GrowCommand(int rootId, Player.Entity from, Player.Entity to, Player.EntityType type,
+							   Player.Direction direction, double merit) implements Player.Command {
+		@Override
+		public void write(CommandWriter out) {
+			out.append("GROW ").append(from.getId()).append(' ').append(to.getX()).append(' ').append(to.getY()).append(' ').append(type.name());
+			if (direction != null) {
+				out.append(' ').append(direction.name());
+			}
+			if (showRootIdOnCommand) {
+				out.append(' ').append(rootId).append(" GROW");
+			}
+		}
+
+		@Override
+		public Player.EntityType getBuildType() {
+			return type;
+		}
+
+		@Override
+		public Entity getBuildFrom() {
+			return from;
+		}
+
+		@Override
+		public void updateState() {
+			to.grid().buildGhostEntity(to, type, direction);
+		}
+
+		public String toString() {
+			return String.format("[%.2f] %s", merit(), getText());
+		}
+	}
+
+	private record SporeCommand(int rootId, Player.Entity from, Player.Entity to,
+								double merit) implements Player.Command {
+		@Override
+		public void write(CommandWriter out) {
+			out.append("SPORE ").append(from.getId()).append(' ').append(to.getX()).append(' ').append(to.getY());
+			if (showRootIdOnCommand) {
+				out.append(' ').append(rootId).append(" SPORE");
+			}
+		}
+
+		@Override
+		public Player.EntityType getBuildType() {
+			return Player.EntityType.ROOT;
+		}
+
+		@Override
+		public Entity getBuildFrom() {
+			return from;
+		}
+
+		@Override
+		public void updateState() {
+			to.grid().buildGhostEntity(to, EntityType.ROOT, null);
+		}
+
+		public String toString() {
+			return String.format("[%.2f] %s", merit(), getText());
+		}
+	}
+
+	// A turn's commands in one reused buffer, written at once
+	private static class CommandWriter {
+		private byte[] buffer = new byte[256];
+		private int length;
+
+		public CommandWriter append(char c) {
+			if (length == buffer.length) {
+				buffer = Arrays.copyOf(buffer, length * 2);
+			}
+			buffer[length++] = (byte) c;
+			return this;
+		}
+
+		public CommandWriter append(String text) {
+			for (int i = 0; i < text.length(); i++) {
+				append(text.charAt(i));
+			}
+			return this;
+		}
+
+		public CommandWriter append(int value) {
+			if (value < 0) {
+				append('-');
+				value = -value;
+			}
+			if (value >= 10) {
+				append(value / 10);
+			}
+			return append((char) ('0' + value % 10));
+		}
+
+		public void writeTo(PrintStream output) {
+			output.write(buffer, 0, length);
+			output.flush();
+			length = 0;
+		}
+
+		@Override
+		public String toString() {
+			return new String(buffer, 0, length, StandardCharsets.US_ASCII);
+		}
+	}
+
+	private List<Command> getCommands(int commandsNeeded) {
+		debug("Commands needed: %s", commandsNeeded);
+		List<Command> commands = new ArrayList<>();
+		// Most useful behaviors first, the deadline cuts the rest
+		sortBehaviorOrder();
+		// Iterate my roots in reverse order so ostensibly further forward organisms act first
+		for (int i = commandsNeeded - 1; i >= 0; i--) {
+			Entity currentRoot = myRoots.get(i);
+			currentRootId = currentRoot.getId();
+			profiler.start("Root");
+			// Ties go to the behavior earlier in the list whatever order they ran in
+			Command bestCommand = new WaitCommand(currentRoot.getRootId());
+			int bestIndex = behaviors.size();
+			int frontier = Math.min(32 - Integer.numberOfLeadingZeros(grid.frontierSize(grid.reach.get(currentRoot.getRootId()))), FRONTIER_BUCKETS - 1);
+			// Checked once, the calls below box their arguments
+			boolean debugging = debugging(DebugCategory.GENERAL);
+			if (debugging) {
+				debug("Commands considered:");
+			}
+			for (int index : behaviorOrder) {
+				Behavior behavior = behaviors.get(index);
+				long remainingNanos = turnDeadlineNanos - System.nanoTime();
+				if (remainingNanos < 0) {
+					debug("Turn deadline reached, skipping remaining behaviors");
+					break;
+				}
+				long[] costNanos = behaviorCostNanos[index];
+				if (costNanos[frontier] > remainingNanos) {
+					if (debugging) {
+						debug("Skipping %s, expected %.3fms with %.3fms left", behavior, costNanos[frontier] / 1e6, remainingNanos / 1e6);
+					}
+					profiler.skip(behavior.toString());
+					// So one slow run can't lock a behavior out for good
+					costNanos[frontier] -= costNanos[frontier] >> 2;
+					continue;
+				}
+				long startNanos = System.nanoTime();
+				profiler.start(behavior.toString());
+				Command command = behavior.getCommand(currentRoot.getRootId());
+				profiler.end(behavior.toString());
+				// Turn 1 runs cold
+				if (turn > 1) {
+					long nanos = System.nanoTime() - startNanos;
+					costNanos[frontier] = costNanos[frontier] == 0 ? nanos : costNanos[frontier] + ((nanos - costNanos[frontier]) >> 2);
+				}
+				if (command != null) {
+					if (debugging) {
+						debug(DebugCategory.GENERAL, 1, "%s", command);
+					}
+					if (command.merit() > bestCommand.merit() || (command.merit() == bestCommand.merit() && index < bestIndex)) {
+						bestCommand = command;
+						bestIndex = index;
+					}
+				}
+			}
+			profiler.end("Root");
+			if (bestIndex < behaviors.size()) {
+				behaviorChosenCounts[bestIndex]++;
+			}
+			if (debugging) {
+				debug("Executing command %s", bestCommand);
+			}
+			spendProtein(bestCommand.getBuildType());
+			bestCommand.updateState();
+			Entity buildFrom = bestCommand.getBuildFrom();
+			if (buildFrom != null) {
+				myAssert(buildFrom.getRootId() == bestCommand.rootId(), "It is root %s's turn but we are producing from %s with root id %s", bestCommand.rootId(), buildFrom, buildFrom.getRootId());
+			}
+			commands.add(bestCommand);
+		}
+		currentRootId = null;
+		return commands;
+	}
+
+	// Insertion sort, the order is nearly sorted from last turn
+	private void sortBehaviorOrder() {
+		for (int i = 1; i < behaviorOrder.length; i++) {
+			int index = behaviorOrder[i];
+			int j = i - 1;
+			for (; j >= 0 && runsBefore(index, behaviorOrder[j]); j--) {
+				behaviorOrder[j + 1] = behaviorOrder[j];
+			}
+			behaviorOrder[j + 1] = index;
+		}
+	}
+
+	private boolean runsBefore(int index, int other) {
+		return behaviorChosenCounts[index] > behaviorChosenCounts[other] || (behaviorChosenCounts[index] == behaviorChosenCounts[other] && index < other);
+	}
+
+	private static final EntityType[] ARBITRARY_BUILD_TYPES = {EntityType.BASIC, EntityType.SPORER, EntityType.TENTACLE, EntityType.HARVESTER};
+
+	private EntityType getArbitraryBuildableType() {
+		int tentacleBuildCount = buildCount(EntityType.TENTACLE);
+		if (tentacleBuildCount > 20) {
+			// If we can build a ton of tentacles, just build it. It's the only one that may incidentally help down the road
+			return EntityType.TENTACLE;
+		}
+		EntityType mostBuildable = ARBITRARY_BUILD_TYPES[0];
+		for (EntityType type : ARBITRARY_BUILD_TYPES) {
+			if (buildCount(type) > buildCount(mostBuildable)) {
+				mostBuildable = type;
+			}
+		}
+		return canBuild(mostBuildable) ? mostBuildable : null;
+	}
+
+	// Merit parts that only read tiles around one tile, good until the tile's cache expire touch
+	private static class TileMerit {
+		private int touchedCount = Integer.MIN_VALUE;
+		private final double[] values;
+
+		public TileMerit(int values) {
+			this.values = new double[values];
+		}
+	}
+
+	// Root merits by sporer, direction, new root and building now, in parallel arrays so nothing allocates. Each key
+	// hashes to a pair of slots, a new key evicts the older one. Expired by touch count or changed game wide inputs.
+	private static class RootMeritCache {
+		private static final int BITS = 13;
+		private static final int EMPTY = -1;
+		private final int[] keys = new int[1 << BITS];
+		private final double[] merits = new double[1 << BITS];
+		private final int[] touchedCounts = new int[1 << BITS];
+		private final int[] inputs = new int[1 << BITS];
+		private int entries, hits, misses, evictions;
+
+		public RootMeritCache() {
+			Arrays.fill(keys, EMPTY);
+		}
+
+		private static int pair(int key) {
+			return (key * 0x9E3779B9) >>> (32 - BITS) & ~1;
+		}
+
+		// -1 when not cached
+		private int find(int key) {
+			int pair = pair(key);
+			return keys[pair] == key ? pair : keys[pair + 1] == key ? pair + 1 : -1;
+		}
+
+		// Whether the key has a merit calculated with these inputs since the given touch count
+		public boolean isValid(int key, int inputs, int expireTouch) {
+			int slot = find(key);
+			return slot >= 0 && this.inputs[slot] == inputs && expireTouch <= touchedCounts[slot];
+		}
+
+		public double merit(int key) {
+			return merits[find(key)];
+		}
+
+		public void put(int key, double merit, int touchedCount, int inputs) {
+			int slot = find(key);
+			if (slot < 0) {
+				int pair = pair(key);
+				slot = keys[pair] == EMPTY ? pair : keys[pair + 1] == EMPTY ? pair + 1 : touchedCounts[pair] <= touchedCounts[pair + 1] ? pair : pair + 1;
+				if (keys[slot] == EMPTY) {
+					entries++;
+				} else {
+					evictions++;
+				}
+			}
+			keys[slot] = key;
+			merits[slot] = merit;
+			touchedCounts[slot] = touchedCount;
+			this.inputs[slot] = inputs;
+		}
+
+		public void clear() {
+			Arrays.fill(keys, EMPTY);
+			entries = hits = misses = evictions = 0;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("Root merit cache: %d entries, %d hits, %d misses, %d evictions", entries, hits, misses, evictions);
+		}
+	}
+
+	// The best build option a scan has seen, reset per root so scanning allocates nothing
+	private static class BuildCandidate {
+		private Entity from, to;
+		private double merit;
+		private boolean found;
+
+		public void reset() {
+			found = false;
+		}
+
+		// The first with the highest merit, as Stream.max picks
+		public void offer(Entity from, Entity to, double merit) {
+			if (!found || merit > this.merit) {
+				this.from = from;
+				this.to = to;
+				this.merit = merit;
+				found = true;
+			}
+		}
+
+		public boolean found() {
+			return found;
+		}
+
+		public Entity from() {
+			return from;
+		}
+
+		public Entity to() {
+			return to;
+		}
+
+		public double merit() {
+			return merit;
+		}
+	}
+
+	// Candidate ids best first, lower id among equals as a scan in id order keeps. Positions index the heap by id.
+	private static class CandidateHeap {
+		private final int[] heap, positions;
+		private final double[] merits;
+		private int size;
+
+		public CandidateHeap(int capacity) {
+			heap = new int[capacity];
+			positions = new int[capacity];
+			merits = new double[capacity];
+			Arrays.fill(positions, -1);
+		}
+
+		public void update(int id, double merit) {
+			if (positions[id] < 0) {
+				move(id, size++);
+			}
+			merits[id] = merit;
+			siftDown(siftUp(positions[id]));
+		}
+
+		public void remove(int id) {
+			int position = positions[id];
+			if (position < 0) {
+				return;
+			}
+			positions[id] = -1;
+			if (position < --size) {
+				move(heap[size], position);
+				siftDown(siftUp(position));
+			}
+		}
+
+		public void clear() {
+			for (int i = 0; i < size; i++) {
+				positions[heap[i]] = -1;
+			}
+			size = 0;
+		}
+
+		// The best id, or -1 if empty
+		public int peek() {
+			return size == 0 ? -1 : heap[0];
+		}
+
+		public double merit(int id) {
+			return merits[id];
+		}
+
+		private boolean before(int a, int b) {
+			return merits[a] > merits[b] || merits[a] == merits[b] && a < b;
+		}
+
+		private int siftUp(int position) {
+			int id = heap[position];
+			for (int parent = (position - 1) / 2; position > 0 && before(id, heap[parent]); parent = (position - 1) / 2) {
+				move(heap[parent], position);
+				position = parent;
+			}
+			move(id, position);
+			return position;
+		}
+
+		private void siftDown(int position) {
+			int id = heap[position];
+			for (int child = position * 2 + 1; child < size; child = position * 2 + 1) {
+				if (child + 1 < size && before(heap[child + 1], heap[child])) {
+					child++;
+				}
+				if (!before(heap[child], id)) {
+					break;
+				}
+				move(heap[child], position);
+				position = child;
+			}
+			move(id, position);
+		}
+
+		private void move(int id, int position) {
+			heap[position] = id;
+			positions[id] = position;
+		}
+	}
+
+	// A behavior's candidates (tile index * 4 + direction) per organism, kept across turns and scored again only when a
+	// tile their merits read is touched. Game wide inputs changing, walls moving or a full touch log rescore them all.
+	private abstract class CandidateQueue implements Behavior {
+		private final int radius;
+		private final double[] inputs;
+		private final Map<Integer, Candidates> roots = new HashMap<>();
+		private Candidates current;
+
+		private class Candidates {
+			private final CandidateHeap heap = new CandidateHeap(grid.size() * 4);
+			private final long[] frontier = new long[grid.walls.length];
+			private final double[] inputs = new double[CandidateQueue.this.inputs.length];
+			private int touched, wallChanges = -1;
+		}
+
+		// How far from a candidate's tile its merits read, and how many game wide values
+		CandidateQueue(int radius, int inputs) {
+			this.radius = radius;
+			this.inputs = new double[inputs];
+		}
+
+		abstract void score(Entity tile);
+
+		void inputs(double[] inputs) {
+		}
+
+		boolean reads(Entity tile, Entity touched) {
+			return tile.getStraightDistanceBetween(touched) <= radius;
+		}
+
+		void offer(Entity tile, Direction direction, double merit) {
+			current.heap.update(tile.getIndex() * 4 + (direction == null ? 0 : direction.ordinal()), merit);
+		}
+
+		// Keeps the buffers, the next best() scores everything again
+		public void clear() {
+			for (Candidates candidates : roots.values()) {
+				candidates.wallChanges = -1;
+			}
+		}
+
+		// -1 if none
+		int best(int rootId) {
+			current = roots.computeIfAbsent(rootId, id -> new Candidates());
+			inputs(inputs);
+			if (!Arrays.equals(inputs, current.inputs) || current.wallChanges != grid.wallChanges
+					|| grid.touchedCount - current.touched > TOUCH_LOG) {
+				current.heap.clear();
+				Arrays.fill(current.frontier, 0);
+				System.arraycopy(inputs, 0, current.inputs, 0, inputs.length);
+				current.wallChanges = grid.wallChanges;
+			}
+			long[] reach = grid.reach.get(rootId);
+			for (int w = 0; w < reach.length; w++) {
+				long frontier = reach[w] & grid.buildable[w];
+				for (long bits = current.frontier[w] | frontier; bits != 0; bits &= bits - 1) {
+					long bit = bits & -bits;
+					Entity tile = grid.tile((w << 6) + Long.numberOfTrailingZeros(bits));
+					if ((current.frontier[w] & bit) == 0 || (frontier & bit) == 0 || touched(tile)) {
+						for (int id = tile.getIndex() * 4; id < tile.getIndex() * 4 + 4; id++) {
+							current.heap.remove(id);
+						}
+						if ((frontier & bit) != 0) {
+							score(tile);
+						}
+					}
+				}
+				current.frontier[w] = frontier;
+			}
+			current.touched = grid.touchedCount;
+			return current.heap.peek();
+		}
+
+		double merit(int id) {
+			return current.heap.merit(id);
+		}
+
+		private boolean touched(Entity tile) {
+			for (int i = current.touched; i < grid.touchedCount; i++) {
+				if (reads(tile, grid.tile(grid.touched[i & (TOUCH_LOG - 1)]))) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	private boolean canBuild(EntityType type) {
+		return buildCount(type) > 0;
+	}
+
+	private int buildCount(EntityType type) {
+		return switch (type) {
+			case BASIC -> myA;
+			case HARVESTER -> Math.min(myC, myD);
+			case TENTACLE -> Math.min(myB, myC);
+			case SPORER -> Math.min(myB, myD);
+			case ROOT -> Math.min(Math.min(Math.min(myA, myB), myC), myD);
+			default -> throw new IllegalArgumentException("Can't build type " + type);
+		};
+	}
+
+	private int getProteinCount(EntityType type) {
+		return switch (type) {
+			case A -> myA;
+			case B -> myB;
+			case C -> myC;
+			case D -> myD;
+			default -> throw new IllegalArgumentException();
+		};
+	}
+
+	private void spendProtein(EntityType type) {
+		if (type == null) {
+			return;
+		}
+		int[] costs = type.getCost();
+		myA -= costs[0];
+		myB -= costs[1];
+		myC -= costs[2];
+		myD -= costs[3];
+	}
+
+	/**
+	 * Spawning a root from one of the organism's sporers. Where to create a sporer is CreateSporerBehavior's queue.
+	 *
+	 * @param rootId           The rootId for the entity
+	 * @return The result of all possibilities for new ROOT expansion
+	 */
+	private BuildCandidate getRootExpandLocation(int rootId, BuildCandidate best) {
+		best.reset();
+		for (Entity entity : rootToDescendentsMap.get(rootId)) {
+			if (entity.getType().equals(EntityType.SPORER)) {
+				offerRootLocations(entity, entity.getDirection(), true, best);
+			}
+		}
+		return best.found() ? best : null;
+	}
+
+	// Offer every tile a spore from sporer can land on, up to the first tile it can't shoot over
+	private void offerRootLocations(Entity sporer, Direction direction, boolean buildingRoot, BuildCandidate best) {
+		int[] ray = grid.ray(sporer, direction);
+		// The ray already stops at walls, organs grown since it was built stop the spore here
+		for (int i = 0; i < ray.length && EntityPredicates.SHOOT_ROOT_OVER.test(grid.tile(ray[i])); i++) {
+			Entity newRoot = grid.tile(ray[i]);
+			// Skip first entity because it probably won't make sense to create a new root right in front of where we are, just expand there
+			if (i > 0 && newRoot.isBuildable()) {
+				best.offer(sporer, newRoot, getRootMerit(sporer, direction, newRoot, buildingRoot));
+			}
+		}
+	}
+
+	private double getRootMerit(Entity sporer, Direction direction, Entity newRoot, boolean buildingRoot) {
+		int key = ((sporer.getIndex() * 4 + direction.ordinal()) * grid.size() + newRoot.getIndex()) * 2 + (buildingRoot ? 1 : 0);
+		// Game wide, the merit reads the root count and whether stocks allow another root
+		int inputs = myRoots.size() * 2 + (shouldConsiderNewRoot(!buildingRoot) ? 1 : 0);
+		if (rootMeritCache.isValid(key, inputs, Math.max(sporer.getCacheExpireTouch(), newRoot.getCacheExpireTouch()))) {
+			if (debugging(DebugCategory.SPORING)) {
+				debug(DebugCategory.SPORING, 1, "Using cached root merit %.2f sporing %s %s to %s", rootMeritCache.merit(key), sporer, direction, newRoot);
+			}
+			rootMeritCache.hits++;
+			return rootMeritCache.merit(key);
+		}
+		rootMeritCache.misses++;
+		double merit = calculateRootMerit(sporer, newRoot, buildingRoot);
+		rootMeritCache.put(key, merit, grid.touchedCount, inputs);
+		return merit;
+	}
+
+	// These are the knobs we can turn to influence decision-making. Each Player has its own set so variants can be tuned against each other.
+	public static class Merit {
+
+		// -- Generic --
+		// Don't build on proteins we are harvesting
+		public double buildOnCurrentlyHarvestedProteinHighResources = -9;
+		public double buildOnCurrentlyHarvestedProteinLowResources = -15;
+		public double buildOnUnharvestedProteinLowResources = -15;
+
+		// --- New Root ---
+		// Give this much merit per space the root is from the sporer
+		public double newRootMeritPerDistanceFromSporer = .3;
+		// Don't give extra bonus after this many spaces, it may shove us in a corner instead of a better spot
+		public double newRootMeritMaxDistanceForBonus = 10;
+		// The first new ROOT gives [0], second [1], etc
+		public List<Double> newRootMeritByEntityCount = Arrays.asList(12.0, 8.0, 4.0);
+		// Merit for new ROOTs after the above benefits are exhausted
+		public double newRootMeritDefault = 0;
+
+		public List<Double> newRootMeritFromProteinByDistance = Arrays.asList(.5, .25, 1.0, .25);
+		public double newRootMeritFromFriendlyWithinThreeDistance = -3;
+
+		// -- New Harvester --
+		// Same as above, first harvester of this protein type gets [0], etc
+		public List<Double> newHarvesterMeritByEntityCount = Arrays.asList(8.0, 5.0);
+		// Default merit count of harvesters of a protein type after the 2nd
+		public double newHarvesterDefaultMerit = 4.0;
+		// Don't harvest near enemies
+		public double newHarvesterProteinCloseToEnemyMerit = -5;
+		// Prioritize building on tiles having a lower number of proteins they can harvest. If tile 1 can harvest an A or D and tile 2 can only harvest that same D,
+		// regardless of going for A or D first, we want to harvest A from tile 1 and D from tile 2. If we are going for D, give a benefit to tile 2 over 1.
+		public double newHarvesterTileHarvestableProteinsMerit = -.2;
+		// If we are building the last harvester we can afford, and we don't have at least 1 B and C harvester (including the built one), we are getting locked out
+		// of building future harvesters unless we consume one of those proteins in the future - a bad place to be. Hold off on this harvester in hopes that we
+		// get a B and C.
+		public double newHarvesterNoFutureHarvesters = -10;
+		// Depending on how badly we need a protein, give a multiplier between the blow values ( _MIN_ to _MAX_, linearly scaling from 0 to the below value)
+		// For example, given the below 3 values of 20, 2, .5, if we have 6 of that protein, give a (20-6)/20 * (2-.5) + .5 = 1.55 multiplier because we are relatively low
+		// Having 20 would give the min of (20-20)/20 * (2-.5) + .5 = .5
+		public double newHarvesterProteinThreshold = 8;
+		public double newHarvesterMaxProteinMerit = 5;
+		public double newHarvesterMinProteinMerit = 0;
+
+		// --New Arbitrary Expansion --
+		// Same as above. The multiplier is applied per protein and is divided by the distances to that protein.
+		public double newExpansionToProteinThreshold = 20;
+		public double newExpansionToProteinMaxProteinMultiplier = 2;
+		public double newExpansionToProteinMinProteinMultiplier = 0;
+
+		// Late game (turn 70+) when the field is likely locked up, increase merit of taking spaces (harvested proteins)
+		public double newExpansionLateGameExpandMerit = 5;
+		// Merit bonus when I'm out of a protein and can consume one
+		public double newExpansionNeedProteinMerit = 3;
+
+		// -- New Attacker --
+		// Merit for pointing in the direction of an enemy 1, 2, 3 spaces away. 1 space is covered below by killing, building 1 space away pointing the wrong way doesn't help.
+		public List<Double> newAttackerDistanceFromEnemyMerit = Arrays.asList(0.0, 6.0, 6.0, 2.0);
+		// Get a small merit bonus to break ties between two directions we could be pointing. Ex if building down and enemies are to the south east, point east.
+		public double newAttackerPointedAtEnemy = .2;
+		// Get a kill - build distance 1 away and pointing in the right direction
+		public double newAttackerParentKillMerit = 10;
+		// Merit for each child of the parent killed. Not sure yet if this is an important distinction, or if a kill is a kill
+		public double newAttackerChildKillMerit = 1;
+		// If a protein is contested, better we take it than the opponent
+		public double newAttackerBuildOnProteinMerit = 3;
+		// If we are already pointing an attacker at the tile we are considering building in, it isn't as important to build there because the enemy can't
+		// It still may be important if the enemy could build up a tentacle coming into this square and us building one would prevent that (both new tentacles die)
+		public double newAttackerTileControledMerit = -2;
+		// If we can point two directions and we already have someone attacking one square, go the other way
+		public double newAttackerAttackingTileControlledMerit = -2;
+	}
+
+	/**
+	 * Ideally, we create a root that is 2 spaces away from proteins (for harvesting) and far away from everything else.
+	 */
+	private double calculateRootMerit(Entity sporer, Entity newRoot, boolean buildingRoot) {
+		TileMerit area = buildRootMeritMap.computeIfAbsent(newRoot, tile -> new TileMerit(1));
+		if (area.touchedCount < newRoot.getCacheExpireTouch()) {
+			double areaMerit = 0;
+			List<Entity> closeBy = pathing.entitiesByDistance(newRoot);
+			for (int i = 0, count = pathing.countWithinDistance(newRoot, 3); i < count; i++) {
+				areaMerit = getRootMeritFromNearbyTile(newRoot, closeBy.get(i)) + areaMerit;
+			}
+			area.values[0] = areaMerit;
+			area.touchedCount = grid.touchedCount;
+		}
+		double totalMerit = area.values[0] + getRootMeritWithSource(sporer, newRoot, buildingRoot);
+		if (debugging(DebugCategory.SPORING)) {
+			debug(DebugCategory.SPORING, 0, "%.2f total merit for sporing %s to %s ", totalMerit, sporer, newRoot);
+		}
+		return totalMerit;
+	}
+
+	private double getRootMeritWithSource(Entity from, Entity newRoot, boolean buildingRoot) {
+		int distance = pathing.distance(from, newRoot);
+		double meritForDistanceFromSource = merit.newRootMeritPerDistanceFromSporer * Math.min(distance, merit.newRootMeritMaxDistanceForBonus);
+		int currentRoots = myRoots.size();
+		// Give merit based on how many roots we have. Creating a second gives [0], a third gives [1], etc.
+		double meritFromNewRoot = currentRoots <= merit.newRootMeritByEntityCount.size() ? merit.newRootMeritByEntityCount.get(currentRoots - 1) : merit.newRootMeritDefault;
+		double meritFromCurrentResources = getRootMeritBasedOnResources(from, newRoot, buildingRoot);
+		double buildingOnHarvestedProteinMerit = from.isHarvestedByMe() || newRoot.isHarvestedByMe() ? getBuildOnResourceMerit() : 0;
+		double buildingOnProteinIShouldHarvest = grid.isLowResources() && (from.getType().isProtein() || newRoot.getType().isProtein()) ? merit.buildOnUnharvestedProteinLowResources : 0;
+		if (debugging(DebugCategory.SPORING)) {
+			debugMerit(DebugCategory.SPORING, meritFromNewRoot, "%.2f building root number %s", meritFromNewRoot, (currentRoots + 1));
+			debugMerit(DebugCategory.SPORING, meritForDistanceFromSource, "%.2f distance merit sporing from %s to %s (distance %s)", meritForDistanceFromSource, from, newRoot, distance);
+			debugMerit(DebugCategory.SPORING, meritFromCurrentResources, "%.2f resource drain merit", meritFromCurrentResources);
+			debugMerit(DebugCategory.SPORING, buildingOnHarvestedProteinMerit, "%.2f building on harvested protein", buildingOnHarvestedProteinMerit);
+			debugMerit(DebugCategory.SPORING, buildingOnProteinIShouldHarvest, "%.2f building on protein on low resource map", buildingOnProteinIShouldHarvest);
+		}
+		return meritForDistanceFromSource + meritFromNewRoot + meritFromCurrentResources + buildingOnHarvestedProteinMerit + buildingOnProteinIShouldHarvest;
+	}
+
+	private double getBuildOnResourceMerit() {
+		return grid.getProteinRation() < .7 ? merit.buildOnCurrentlyHarvestedProteinLowResources : merit.buildOnCurrentlyHarvestedProteinHighResources;
+	}
+
+	// How much we can afford to build the sporer / root? Give negative merit based on current resources and harvesters.
+	private double getRootMeritBasedOnResources(Entity sporer, Entity newRoot, boolean buildingRoot) {
+		int aCount = myA;
+		int bCount = myB;
+		int cCount = myC;
+		int dCount = myD;
+		Entity buildingEntity = buildingRoot ? newRoot : sporer;
+		if(buildingEntity.getType().isProtein()) {
+			switch(buildingEntity.getType()) {
+				case A: aCount += 3;
+				case B: bCount += 3;
+				case C: cCount += 3;
+				case D: dCount += 3;
+			}
+		}
+		if(!shouldConsiderNewRoot(!buildingRoot)) {
+			return -10;
+		}
+		return 0;
+	}
+
+	// The pull of proteins is cached, the stock multipliers are applied fresh
+	private double calculateExpandMerit(Entity source) {
+		TileMerit pull = expandMeritMap.computeIfAbsent(source, tile -> new TileMerit(4));
+		if (pull.touchedCount < source.getExpandCacheExpireTouch()) {
+			Arrays.fill(pull.values, 0);
+			for (Entity protein : grid.getProteins()) {
+				pull.values[protein.getType().ordinal() - EntityType.A.ordinal()] += getNearbyProteinExpandPull(source, protein);
+			}
+			pull.touchedCount = grid.touchedCount;
+		}
+		double totalMerit = getLocationExpandMerit(source);
+		for (int protein = 0; protein < 4; protein++) {
+			totalMerit += pull.values[protein] * getExpandProteinMultiplier(protein);
+		}
+		return totalMerit;
+	}
+
+	// How much we need the protein type (by protein type - A), scales its pull on expansion
+	private double getExpandProteinMultiplier(int protein) {
+		int proteinCount = getProteinCount(EntityType.PROTEIN_TYPES.get(protein));
+		return linearlyScaledPercent(proteinCount, merit.newExpansionToProteinThreshold, merit.newExpansionToProteinMinProteinMultiplier, merit.newExpansionToProteinMaxProteinMultiplier);
+	}
+
+	private double getNearbyProteinExpandPull(Entity source, Entity protein) {
+		Integer distance = pathing.distance(source, protein);
+		if (distance == null || distance > 6) {
+			return 0;
+		}
+		// Don't give additional bonus to proteins that are 1 away
+		return 1.0 / Math.max(2, distance);
+	}
+
+	private double getLocationExpandMerit(Entity source) {
+		double buildingOnHarvestedProteinMerit = source.isHarvestedByMe() ? getBuildOnResourceMerit() : 0;
+		double lateGameExpandMerit = turn >= 70 ? merit.newExpansionLateGameExpandMerit : 0;
+		double consumeNeededProteinMerit = source.getType().isProtein() && getProteinCount(source.getType()) == 0 ? merit.newExpansionNeedProteinMerit : 0;
+		double totalMerit = buildingOnHarvestedProteinMerit + lateGameExpandMerit + consumeNeededProteinMerit;
+		if (debugging(DebugCategory.EXPAND)) {
+			debugMerit(DebugCategory.EXPAND, buildingOnHarvestedProteinMerit, "%.2f from building on harvested protein", buildingOnHarvestedProteinMerit);
+			debugMerit(DebugCategory.EXPAND, lateGameExpandMerit, "%.2f from late game expansion", lateGameExpandMerit);
+			debugMerit(DebugCategory.EXPAND, consumeNeededProteinMerit, "%.2f from consuming needed protein %s", consumeNeededProteinMerit, source);
+			debug(DebugCategory.EXPAND, 0, "%.2f merit expanding to %s", totalMerit, source);
+		}
+		return totalMerit;
+	}
+
+	// See examples in Merit.class
+	private double linearlyScaledPercent(double count, double threshold, double min, double max) {
+		return (Math.max(0, threshold - count) / threshold) * (max - min) + min;
+	}
+
+	/**
+	 * Return false if we should not be considering harvesting this protein because it blocks our progress too much
+	 * Calculated by seeing which neighbors are reachable by us without going through the protein.
+	 * If a neighbor is not reachable, check how many tiles we are losing out on to decide if harvesting is worth it.
+	 */
+	private boolean isProteinCurrentlyHarvestable(Entity protein) {
+		if(protein.isProteinHarvestable() != null) {
+			return protein.isProteinHarvestable();
+		}
+		boolean isHarvestable = true;
+		List<Entity> neighbors = protein.neighbors();
+		for (int n = 0; n < neighbors.size() && isHarvestable; n++) {
+			Entity neighbor = neighbors.get(n);
+			if (!neighbor.isBuildable()) {
+				continue;
+			}
+			List<Entity> reachableEntities = pathing.proteinEntitiesWithinDistance(neighbor, protein);
+			boolean reachedByMe = false;
+			for (int i = 0; i < reachableEntities.size() && !reachedByMe; i++) {
+				reachedByMe = reachableEntities.get(i).mine();
+			}
+			if (!reachedByMe) {
+				// If are cutting off a significant portion of the map, this protein is unharvested. Use the presence of an Entity at max search depth as a proxy for cutting off many tiles.
+				int maxDistance = reachableEntities.isEmpty() ? 0 : pathing.distance(neighbor, reachableEntities.get(reachableEntities.size() - 1));
+				isHarvestable = maxDistance != pathing.getProteinNeighborMaxDepth();
+			}
+		}
+
+		if (debugging(DebugCategory.HARVEST)) {
+			debug(DebugCategory.HARVEST, 1, " [%s] Is harvestable answer for %s", isHarvestable, protein);
+		}
+		protein.setProteinHarvestable(isHarvestable);
+		return isHarvestable;
+	}
+
+	private double getHarvesterExpandMeritResult(Entity harvester, Direction direction) {
+		Entity proteinTarget = harvester.entityInDirection(direction);
+		EntityType protein = proteinTarget.getType();
+		int closeEnemies = 0;
+		List<Entity> closeBy = pathing.entitiesByDistance(proteinTarget);
+		for (int i = 0, count = pathing.countWithinDistance(proteinTarget, 2); i < count; i++) {
+			closeEnemies += closeBy.get(i).enemy() ? 1 : 0;
+		}
+		double closeEnemyMerit = closeEnemies * merit.newHarvesterProteinCloseToEnemyMerit;
+		int harvestableProteins = 0;
+		for (Entity neighbor : harvester.neighbors()) {
+			harvestableProteins += neighbor.getType().isProtein() && !neighbor.isHarvestedByMe() ? 1 : 0;
+		}
+		double harvestableProteinsMerit = harvestableProteins * merit.newHarvesterTileHarvestableProteinsMerit;
+		double buildOnCurrentlyHarvestedProtein = harvester.isHarvestedByMe() ? getBuildOnResourceMerit() : 0;
+		double buildMerit = getHarvesterNeedMerit(protein) + closeEnemyMerit + harvestableProteinsMerit + buildOnCurrentlyHarvestedProtein;
+		if (debugging(DebugCategory.HARVEST)) {
+			debugMerit(DebugCategory.HARVEST, closeEnemyMerit, "%.2f from harvesting close to enemy", closeEnemyMerit);
+			debugMerit(DebugCategory.HARVEST, harvestableProteinsMerit, "%.2f from consuming tile I am already harvesting", harvestableProteinsMerit);
+			debugMerit(DebugCategory.HARVEST, buildOnCurrentlyHarvestedProtein, "%.2f from building on resource I am harvesting %s", buildOnCurrentlyHarvestedProtein, harvester);
+			debug(DebugCategory.HARVEST, 0, "%.2f merit building harvester on %s %s", buildMerit, protein, harvester);
+		}
+		return buildMerit;
+	}
+
+	// The part of a harvester's merit that only depends on the protein type, from our harvesters and stocks
+	private double getHarvesterNeedMerit(EntityType protein) {
+		// Give merit based on how many harvesters we currently have of that type. With zero, give HARVESTER_MERIT[0], etc.
+		List<Double> HARVESTER_MERIT_LIST = merit.newHarvesterMeritByEntityCount;
+		int harvesterCount = grid.harvestedCount(Owner.ME, protein);
+		double harvesterMerit = harvesterCount < HARVESTER_MERIT_LIST.size() ? HARVESTER_MERIT_LIST.get(harvesterCount) : merit.newHarvesterDefaultMerit;
+		int proteinCount = getProteinCount(protein);
+		double proteinMerit = linearlyScaledPercent(proteinCount, merit.newHarvesterProteinThreshold, merit.newHarvesterMinProteinMerit, merit.newHarvesterMaxProteinMerit);
+		// If this is the last harvester we can build, make sure we have at least 1 C and D income so we can continue to build harvesters in the future
+		int nextTurnCProtein = myC + grid.harvestedCount(Owner.ME, EntityType.C) + (protein == EntityType.C ? 1 : 0) - 1;
+		int nextTurnDProtein = myD + grid.harvestedCount(Owner.ME, EntityType.D) + (protein == EntityType.D ? 1 : 0) - 1;
+		double noFutureHarvestersMerit = (nextTurnCProtein == 0 || nextTurnDProtein == 0) ? merit.newHarvesterNoFutureHarvesters : 0;
+		if (debugging(DebugCategory.HARVEST)) {
+			debugMerit(DebugCategory.HARVEST, harvesterMerit, "%.2f from lack of harvesters", harvesterMerit);
+			debugMerit(DebugCategory.HARVEST, proteinMerit, "%.2f from lack of protein", proteinMerit);
+			debugMerit(DebugCategory.HARVEST, noFutureHarvestersMerit, "%.2f from using last proteins", noFutureHarvestersMerit);
+		}
+		return harvesterMerit + proteinMerit + noFutureHarvestersMerit;
+	}
+
+	private void debugMerit(DebugCategory category, double merit, String format, Object... args) {
+		if (merit != 0) {
+			debug(category, 1, format, args);
+		}
+	}
+
+	private double getRootMeritFromNearbyTile(Entity source, Entity closeByEntity) {
+		Integer distance = pathing.distance(source, closeByEntity);
+		if (distance == null) {
+			return 0;
+		}
+		List<Double> meritByDistance = merit.newRootMeritFromProteinByDistance;
+		double meritImpact = 0;
+		if (closeByEntity.getType().isProtein() && distance < meritByDistance.size()) {
+			meritImpact += meritByDistance.get(distance);
+		} else if (closeByEntity.mine()) {
+			meritImpact += merit.newRootMeritFromFriendlyWithinThreeDistance;
+		}
+		return meritImpact;
+	}
+
+	private boolean shouldConsiderNewRoot(boolean buildingSporer) {
+		// Allow 1 more resource for sporer compared to root, otherwise we look dumb creating a sporer and not following up with a root
+		int MIN_EXPAND_PROTEIN = 3 - (buildingSporer ? 0 : 1);
+		return Math.min(Math.min(myA, myB), Math.min(myC, myD)) >= MIN_EXPAND_PROTEIN;
+	}
+
+	private boolean isEnemyWithinDistance(Entity entity, int distance) {
+		List<Entity> closeBy = pathing.entitiesByDistance(entity);
+		for (int i = 0, count = pathing.countWithinDistance(entity, distance); i < count; i++) {
+			if (closeBy.get(i).enemy()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private double calculateAttackMerit(Entity newTentacle, Direction buildDirection) {
+		// Points for pointing at nearby enemies where the next direction is our attack direction
+		// Points for enemies that are 1 or 2 spaces away?
+		if (debugging(DebugCategory.ATTACK)) {
+			debug(DebugCategory.ATTACK, 0, "Calculating attack merit for %s %s", newTentacle, buildDirection);
+		}
+		double nearbyEnemyMerit = 0;
+		List<Entity> closeBy = pathing.entitiesByDistance(newTentacle);
+		for (int i = 0, count = pathing.countWithinDistance(newTentacle, 3); i < count; i++) {
+			if (closeBy.get(i).enemy()) {
+				nearbyEnemyMerit += getNearbyEnemyAttackMerit(newTentacle, buildDirection, closeBy.get(i));
+			}
+		}
+		if (debugging(DebugCategory.ATTACK)) {
+			debug(DebugCategory.ATTACK, 1, "%.2f nearby enemy merit total", nearbyEnemyMerit);
+		}
+		double attackLocationMerit = getLocationAttackMerit(newTentacle, buildDirection);
+		if (debugging(DebugCategory.ATTACK)) {
+			debug(DebugCategory.ATTACK, 1, "%.2f attack location merit total", attackLocationMerit);
+		}
+		return nearbyEnemyMerit + attackLocationMerit;
+	}
+
+	private double getNearbyEnemyAttackMerit(Entity newTentacle, Direction buildDirection, Entity enemy) {
+		Integer distance = pathing.distance(newTentacle, enemy);
+		if (distance == null) {
+			return 0;
+		}
+		List<Double> enemyDistanceMerits = merit.newAttackerDistanceFromEnemyMerit;
+
+		Entity nextEntity = newTentacle.entityInDirection(buildDirection);
+		if (nextEntity == null) {
+			return 0;
+		}
+
+		boolean goingInRightDirection;
+		boolean kill = false;
+		if (nextEntity == enemy) {
+			goingInRightDirection = true;
+			kill = true;
+		} else {
+			Integer nextDistance = pathing.distance(nextEntity, enemy);
+			if (nextDistance == null) {
+				return 0;
+			}
+			goingInRightDirection = nextDistance < distance;
+		}
+
+		int distanceInDirection = switch (buildDirection) {
+			case N -> Math.max(0, newTentacle.getY() - enemy.getY());
+			case S -> Math.max(0, enemy.getY() - newTentacle.getY());
+			case W -> Math.max(0, newTentacle.getX() - enemy.getX());
+			case E -> Math.max(0, enemy.getX() - newTentacle.getX());
+		};
+
+		myAssert(distance < enemyDistanceMerits.size(), "%s to %s has distance %s", newTentacle, enemy, distance);
+		double closeToEnemyMerit = goingInRightDirection ? enemyDistanceMerits.get(distance - 1) : 0;
+		int killCount = kill ? 1 + enemy.getDescendantCount() : 0;
+		double killMerit = killCount * merit.newAttackerParentKillMerit;
+		double distanceMerit = merit.newAttackerPointedAtEnemy * distanceInDirection;
+		double totalMeritFromEnemy = closeToEnemyMerit + killMerit + distanceMerit;
+		if (debugging(DebugCategory.ATTACK)) {
+			debug(DebugCategory.ATTACK, 2, "%.2f from attacking %s  %.2f  %.2f  %.2f", totalMeritFromEnemy, enemy, closeToEnemyMerit, killMerit, distanceMerit);
+		}
+		return totalMeritFromEnemy;
+	}
+
+	private double getLocationAttackMerit(Entity newTentacle, Direction buildDirection) {
+		Entity entityInFrontOfTentacle = newTentacle.entityInDirection(buildDirection);
+		myAssert(entityInFrontOfTentacle != null, "Attacking into nothing from %s %s", newTentacle, buildDirection);
+		double buildOnProteinMerit = newTentacle.getType().isProtein() ? merit.newAttackerBuildOnProteinMerit : 0;
+		double attackedByMeMerit = newTentacle.isAttackedByMe() ? merit.newAttackerTileControledMerit : 0;
+		double attackingControlledTileMerit = entityInFrontOfTentacle.isAttackedByMe() ? merit.newAttackerAttackingTileControlledMerit : 0;
+		if (debugging(DebugCategory.ATTACK)) {
+			debugMerit(DebugCategory.ATTACK, buildOnProteinMerit, "%.2f for building on protein", buildOnProteinMerit);
+			debugMerit(DebugCategory.ATTACK, attackedByMeMerit, "%.2f for already controlling tile", attackedByMeMerit);
+			debugMerit(DebugCategory.ATTACK, attackingControlledTileMerit, "%.2f for attacking already controlled tile", attackingControlledTileMerit);
+		}
+		return buildOnProteinMerit + attackedByMeMerit + attackingControlledTileMerit;
+	}
+
+	private List<Behavior> getBehaviors() {
+		return Arrays.asList(
+				new AttackBehavior(),
+				new CreateNewRootBehavior(),
+				new CreateSporerBehavior(),
+				new BuildHarvesterBehavior(),
+				new ExpandToSpaceBehavior(),
+				new WaitBehavior()
+		);
+	}
+
+	private void newTurn() {
+		turn++;
+		turnDeadlineNanos = System.nanoTime() + (turn == 1 ? FIRST_TURN_BUDGET_NANOS : TURN_BUDGET_NANOS);
+		profiler.newTurn();
+		debug("Start of turn %s", turn);
+		myRoots.clear();
+		enemyRoots.clear();
+		entitiesById.clear();
+		rootToDescendentsMap.clear();
+		grid.newTurn();
+		grid.getProteins().clear();
+	}
+
+	private void postTurnLoad() {
+		profiler.start("Post Turn Load");
+		grid.updateMasks();
+		// Give parents their children
+		entitiesById.values().forEach(entity -> entitiesById.get(entity.getParentId()).getChildren().add(entity));
+
+		myRoots.sort(Comparator.comparingInt(Entity::getId));
+
+		// Cache the list of organisms for each root id
+		myRoots.forEach(rootEntity -> rootToDescendentsMap.put(rootEntity.getId(), new ArrayList<>()));
+		grid.myEntitiesStream().forEach(entity -> rootToDescendentsMap.get(entity.getRootId()).add(entity));
+		grid.updateReach();
+
+		if (turn > 1) {
+			// Process changed entities
+			List<Entity> changedEntities = grid.changedTiles();
+			pathing.repairPaths(changedEntities);
+			if (changedEntities.stream().anyMatch(tile -> tile.getType().equals(EntityType.WALL) || grid.lastTypes[tile.getIndex()] == EntityType.WALL.ordinal())) {
+				grid.buildRays();
+				grid.wallChanges++;
+				grid.getTiles().forEach(tile -> tile.setProteinHarvestable(null));
+			}
+			changedEntities.forEach(entity -> grid.touch(entity.getIndex()));
+			// Merits cached after a ghost build read it, whether or not the build happened
+			grid.ghostBuilds.forEach(entity -> grid.touch(entity.getIndex()));
+			grid.ghostBuilds.clear();
+		}
+		// Kill merits read enemy descendant counts, which change when the organism grows anywhere
+		for (Entity entity : entitiesById.values()) {
+			if (entity.enemy() && entity.getDescendantCount() != grid.descendantCounts[entity.getIndex()]) {
+				grid.descendantCounts[entity.getIndex()] = entity.getDescendantCount();
+				grid.touch(entity.getIndex());
+			}
+		}
+		grid.saveTurnState();
+
+		profiler.end("Post Turn Load");
+	}
+
+	private void firstTurn() {
+		int gridTiles = grid.width * grid.height;
+		// If the grid is at least 1/5 walls, it is 'closed'
+		long wallCount = grid.getTiles().stream().filter(entity -> entity.getType().equals(EntityType.WALL)).count();
+		debug("Wall count: %s", wallCount);
+		double wallCountRatioNeededForClosedMap = 5.5;
+		boolean closedMap = wallCount > gridTiles / wallCountRatioNeededForClosedMap;
+		grid.setClosed(closedMap);
+		debug("Map is %s", grid.isClosed() ? "CLOSED" : "OPEN");
+
+		double proteinCount = grid.getProteins().size();
+		double mapTiles = grid.getWidth() * grid.getHeight();
+		double proteinRatio = proteinCount / mapTiles;
+		grid.setProteinRation(proteinRatio);
+
+		pathing.generatePaths();
+		grid.buildRays();
+		behaviors.addAll(getBehaviors());
+		behaviorChosenCounts = new int[behaviors.size()];
+		behaviorOrder = new int[behaviors.size()];
+		Arrays.setAll(behaviorOrder, index -> index);
+		behaviorCostNanos = new long[behaviors.size()][FRONTIER_BUCKETS];
+	}
+
+	// Runs the behaviors with made up stocks on turn 1 until passes stop getting faster, so the JIT has compiled them
+	// before turn 2. Each pass ghost builds a command per root and runs again to warm rescoring too, then reverts.
+	private void warmUp() {
+		long stopNanos = Math.min(System.nanoTime() + WARM_UP_NANOS, turnDeadlineNanos - WARM_UP_RESERVE_NANOS);
+		int[] stock = {myA, myB, myC, myD};
+		List<Entity> proteins = new ArrayList<>(grid.getProteins());
+		int ghostBuilds = grid.ghostBuilds.size();
+		List<Command> commands = new ArrayList<>();
+		Set<DebugCategory> categories = EnumSet.copyOf(debugCategories);
+		debugCategories.clear();
+		profiler.start("Warm Up");
+		Random random = new Random(0);
+		long fastestPassNanos = Long.MAX_VALUE;
+		int passes = 0;
+		for (int slowPasses = 0; slowPasses < 20 && System.nanoTime() < stopNanos; passes++) {
+			myA = random.nextInt(20);
+			myB = random.nextInt(20);
+			myC = random.nextInt(20);
+			myD = random.nextInt(20);
+			long startNanos = System.nanoTime();
+			for (Entity root : myRoots) {
+				commands.clear();
+				for (Behavior behavior : behaviors) {
+					Command command = behavior.getCommand(root.getRootId());
+					if (command != null) {
+						commands.add(command);
+					}
+				}
+				if (!commands.isEmpty()) {
+					commands.get(random.nextInt(commands.size())).updateState();
+				}
+			}
+			for (Entity root : myRoots) {
+				behaviors.forEach(behavior -> behavior.getCommand(root.getRootId()));
+			}
+			grid.revertGhostBuilds(ghostBuilds);
+			grid.getProteins().clear();
+			grid.getProteins().addAll(proteins);
+			buildRootMeritMap.clear();
+			expandMeritMap.clear();
+			rootMeritCache.clear();
+			behaviors.forEach(behavior -> {
+				if (behavior instanceof CandidateQueue queue) {
+					queue.clear();
+				}
+			});
+			long passNanos = System.nanoTime() - startNanos;
+			slowPasses = passNanos < fastestPassNanos * 0.95 ? 0 : slowPasses + 1;
+			fastestPassNanos = Math.min(fastestPassNanos, passNanos);
+		}
+		myA = stock[0];
+		myB = stock[1];
+		myC = stock[2];
+		myD = stock[3];
+		debugCategories.addAll(categories);
+		profiler.end("Warm Up");
+		debug("Warm up ran %d passes, fastest %.3fms", passes, fastestPassNanos / 1e6);
+	}
+
+	// Parses input straight from bytes, Scanner cost whole milliseconds on big maps
+	private static class InputReader {
+		private final InputStream input;
+		private final byte[] buffer = new byte[1 << 16];
+		private int position;
+		private int length;
+
+		InputReader(InputStream input) {
+			this.input = input;
+		}
+
+		private int peek() {
+			if (position == length) {
+				try {
+					length = Math.max(input.read(buffer), 0);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				position = 0;
+				if (length == 0) {
+					return -1;
+				}
+			}
+			return buffer[position] & 0xFF;
+		}
+
+		public boolean hasNext() {
+			while (peek() >= 0 && peek() <= ' ') {
+				position++;
+			}
+			return peek() >= 0;
+		}
+
+		private void expectNext() {
+			if (!hasNext()) {
+				throw new UncheckedIOException(new EOFException("Input ended in the middle of a turn"));
+			}
+		}
+
+		public int nextInt() {
+			expectNext();
+			boolean negative = peek() == '-';
+			if (negative) {
+				position++;
+			}
+			if (peek() < '0' || peek() > '9') {
+				throw new IllegalStateException(String.format("Expected a number, got byte 0x%02x", peek()));
+			}
+			int value = 0;
+			while (peek() >= '0' && peek() <= '9') {
+				value = value * 10 + buffer[position++] - '0';
+			}
+			return negative ? -value : value;
+		}
+
+		// A token's first byte, its second (or 0) in the high bits
+		private int nextToken() {
+			expectNext();
+			int first = buffer[position++] & 0xFF;
+			int second = peek() > ' ' ? peek() : 0;
+			while (peek() > ' ') {
+				position++;
+			}
+			return first | second << 8;
+		}
+
+		public EntityType nextEntityType() {
+			int token = nextToken();
+			return switch (token & 0xFF) {
+				case 'W' -> EntityType.WALL;
+				case 'R' -> EntityType.ROOT;
+				case 'H' -> EntityType.HARVESTER;
+				case 'T' -> EntityType.TENTACLE;
+				case 'S' -> EntityType.SPORER;
+				case 'A' -> EntityType.A;
+				case 'B' -> token >> 8 == 0 ? EntityType.B : EntityType.BASIC;
+				case 'C' -> EntityType.C;
+				case 'D' -> EntityType.D;
+				default -> throw new IllegalStateException(String.format("Unknown entity type starting with bytes 0x%02x 0x%02x", token & 0xFF, token >> 8));
+			};
+		}
+
+		// Null for X
+		public Direction nextDirection() {
+			return switch (nextToken() & 0xFF) {
+				case 'N' -> Direction.N;
+				case 'S' -> Direction.S;
+				case 'E' -> Direction.E;
+				case 'W' -> Direction.W;
+				default -> null;
+			};
+		}
+	}
+
+	void start() {
+		InputReader in = new InputReader(input);
+		CommandWriter commandWriter = new CommandWriter();
+		int width = in.nextInt(); // columns in the game grid
+		int height = in.nextInt(); // rows in the game grid
+		init(width, height);
+
+		// game loop, ends when the input does
+		while (in.hasNext()) {
+			for (Command command : playTurn(readTurn(in))) {
+				command.write(commandWriter);
+				commandWriter.append('\n');
+			}
+			commandWriter.writeTo(output);
+		}
+		debug(DebugCategory.TIMER, 0, "%s", rootMeritCache);
+		flushDebugLog();
+	}
+
+	private void init(int width, int height) {
+		grid = new Grid(width, height);
+		// Calculate pathing a little over half the map
+		pathing = new Pathing((grid.getWidth() + grid.getHeight()) / 2 + 4);
+	}
+
+	// Read a turn's input into the grid, returns the number of commands needed
+	private int readTurn(InputReader in) {
+		int entityCount = in.nextInt();
+		newTurn();
+		profiler.start("Reading Entities");
+		for (int i = 0; i < entityCount; i++) {
+			int x = in.nextInt();
+			int y = in.nextInt(); // grid coordinate
+			EntityType entityType = in.nextEntityType(); // WALL, ROOT, BASIC, TENTACLE, HARVESTER, SPORER, A, B, C, D
+			Entity entity = grid.entityAt(x, y);
+			entity.setType(entityType);
+			if (entityType.isProtein()) {
+				grid.getProteins().add(entity);
+			}
+			entity.setOwner(in.nextInt()); // 1 if your organ, 0 if target organ, -1 if neither
+			if (entityType.equals(EntityType.ROOT)) {
+				if (entity.mine()) {
+					myRoots.add(entity);
+				} else {
+					enemyRoots.add(entity);
+				}
+			}
+			entity.setId(in.nextInt()); // id of this entity if it's an organ, 0 otherwise
+			Direction organDir = in.nextDirection(); // N,E,S,W or X if not an organ
+			if (organDir != null) {
+				entity.setDirection(organDir);
+			}
+			entity.setParentId(in.nextInt());
+			entity.setRootId(in.nextInt());
+			entitiesById.put(entity.getId(), entity);
+		}
+		profiler.end("Reading Entities");
+		myA = in.nextInt();
+		myB = in.nextInt();
+		myC = in.nextInt();
+		myD = in.nextInt();
+		int enemyA = in.nextInt();
+		int enemyB = in.nextInt();
+		int enemyC = in.nextInt();
+		int enemyD = in.nextInt();
+
+		return in.nextInt(); // your number of organisms, output an action for each one in any order
+	}
+
+	private List<Command> playTurn(int requiredActionsCount) {
+		postTurnLoad();
+
+		if (turn == 1) {
+			firstTurn();
+			warmUp();
+		}
+
+		boolean shortCircuitGame = false;
+		if (turn == 5 && shortCircuitGame) {
+			throw new RuntimeException("Short circuit game for testing");
+		}
+		List<Command> commands = getCommands(requiredActionsCount);
+		profiler.end("Turn");
+		return commands;
+	}
+
+	enum DebugCategory {
+		GENERAL,
+		PATHING,
+		EXPAND,
+		ATTACK,
+		HARVEST,
+		SPORING,
+		TIMER
+	}
+
+	// None in a real game, add the categories to look into when replaying one
+	Set<DebugCategory> debugCategories = EnumSet.noneOf(DebugCategory.class);
+
+	Integer debugRootId = null;
+
+	// Printed by a writer thread so the turn never waits on stderr, dropped when it can't keep up
+	private final BlockingQueue<String> debugLog = new ArrayBlockingQueue<>(4096);
+	private final AtomicInteger droppedDebugMessages = new AtomicInteger();
+	private Thread debugWriter;
+
+	private void writeDebugLog() {
+		try {
+			while (true) {
+				String message = debugLog.take();
+				int dropped = droppedDebugMessages.getAndSet(0);
+				if (dropped > 0) {
+					System.err.println("[debug] dropped " + dropped + " messages");
+				}
+				System.err.println(message);
+			}
+		} catch (InterruptedException ignored) {
+		}
+	}
+
+	private boolean debugging(DebugCategory category) {
+		return debugCategories.contains(category) && (debugRootId == null || debugRootId.equals(currentRootId));
+	}
+
+	private void debug(String format, Object... args) {
+		debug(DebugCategory.GENERAL, 0, format, args);
+	}
+
+	private void debug(DebugCategory category, int indentionLevel, String format, Object... args) {
+		if (!debugging(category)) {
+			return;
+		}
+		String message = "  ".repeat(indentionLevel) + String.format(format, args);
+		if (currentRootId != null) {
+			message = "[" + currentRootId + "] " + message;
+		}
+		if (debugWriter == null) {
+			debugWriter = new Thread(this::writeDebugLog, "debug-writer");
+			debugWriter.setDaemon(true);
+			debugWriter.start();
+		}
+		if (!debugLog.offer("[" + System.currentTimeMillis() + "]  " + message)) {
+			droppedDebugMessages.incrementAndGet();
+		}
+	}
+
+	// Prints what the writer left so the end of a game isn't lost
+	private void flushDebugLog() {
+		if (debugWriter == null) {
+			return;
+		}
+		debugWriter.interrupt();
+		try {
+			debugWriter.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		debugLog.forEach(System.err::println);
+	}
+
+	public static void myAssert(boolean b, String message) {
+		if (!b) {
+			throw new RuntimeException(message);
+		}
+	}
+
+	public static void myAssert(boolean b, String format, Object... args) {
+		if (!b) {
+			throw new RuntimeException(String.format(format, args));
+		}
+	}
+
+	// Lets dev tools follow profiler spans across a game. Depth is 1 for the turn, 2 for the steps inside it and so on.
+	interface SpanListener {
+		void started(String name, int depth);
+
+		void ended(String name, int depth, long nanos);
+
+		void skipped(String name, int depth);
+	}
+
+	void setSpanListener(SpanListener spanListener) {
+		this.spanListener = spanListener;
+	}
+
+	// Times nested spans. With TIMER on, each turn also logs the bytes this thread allocated and the GCs that ran.
+	private class Profiler {
+		private final String[] names = new String[8];
+		private final long[] startNanos = new long[8];
+		private int depth;
+		private final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		private final GarbageCollectorMXBean[] collectors = ManagementFactory.getGarbageCollectorMXBeans().toArray(new GarbageCollectorMXBean[0]);
+		private long gcCount, gcMillis, turnAllocatedBytes;
+
+		private void addCollectors(int sign) {
+			for (GarbageCollectorMXBean collector : collectors) {
+				gcCount += sign * Math.max(collector.getCollectionCount(), 0);
+				gcMillis += sign * Math.max(collector.getCollectionTime(), 0);
+			}
+		}
+
+		// Starts the turn span at the top, dropping anything a previous turn left open
+		void newTurn() {
+			depth = 0;
+			if (debugCategories.contains(DebugCategory.TIMER)) {
+				gcCount = gcMillis = 0;
+				addCollectors(-1);
+				turnAllocatedBytes = threads.getCurrentThreadAllocatedBytes();
+			}
+			start("Turn");
+		}
+
+		void start(String name) {
+			names[depth++] = name;
+			if (spanListener != null) {
+				spanListener.started(name, depth);
+			}
+			startNanos[depth - 1] = System.nanoTime();
+		}
+
+		void skip(String name) {
+			if (spanListener != null) {
+				spanListener.skipped(name, depth + 1);
+			}
+		}
+
+		void end(String name) {
+			long nanos = System.nanoTime() - startNanos[depth - 1];
+			if (!names[depth - 1].equals(name)) {
+				myAssert(false, "Ending span " + name + " but " + names[depth - 1] + " is open");
+			}
+			if (spanListener != null) {
+				spanListener.ended(name, depth, nanos);
+			}
+			depth--;
+			if (debugCategories.contains(DebugCategory.TIMER)) {
+				debug(DebugCategory.TIMER, depth, "[%.3fms] Timer %s", nanos / 1e6, name);
+				if (depth == 0) {
+					long allocatedBytes = threads.getCurrentThreadAllocatedBytes() - turnAllocatedBytes;
+					addCollectors(1);
+					Runtime runtime = Runtime.getRuntime();
+					debug(DebugCategory.TIMER, 0, "Turn %s: %.3fms, %dKB allocated, %d GCs taking %dms, %dMB heap used", turn, nanos / 1e6,
+							allocatedBytes >> 10, gcCount, gcMillis, (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+				}
+			}
+		}
+	}
+
+	public static void main(String[] args) {
+		new Player(System.in, System.out).start();
+	}
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+import java.io.*;
+
+/**
+ * Plays a game as the bot, the same as Player, while saving the game's raw input to a file for Replay.
+ * Not part of the submission, use it as the bot's command with: java -cp target/classes Recorder game.txt
+ */
+class Recorder {
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: Recorder <file to record to>");
+            System.exit(1);
+        }
+        OutputStream record = new FileOutputStream(args[0]);
+        InputStream input = new FilterInputStream(System.in) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    record.write(b);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                int read = super.read(bytes, offset, length);
+                if (read > 0) {
+                    record.write(bytes, offset, read);
+                    record.flush();
+                }
+                return read;
+            }
+        };
+        new Player(input, System.out).start();
+    }
+}
@@ -0,0 +1,594 @@
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Plays a full Cellularena game between two bots in this JVM. Each bot runs its normal game loop on its own thread and
+ * is fed the same text protocol the CodinGame referee sends, so nothing in Player knows it is being refereed.
+ * <p>
+ * Maps come from our own generator seeded with the game seed. The same seed always gives the same map, but it is not
+ * the map CodinGame builds for that seed. Bots are asked for their commands one at a time so their turn timings don't
+ * overlap.
+ * <p>
+ * Not part of the submission, run with: java -cp target/classes Referee [seed ...]
+ */
+class Referee {
+    static final int MAX_TURNS = 100;
+    private static final int START_PROTEINS = 10;
+    private static final int ABSORB_PROTEINS = 3;
+    // Far longer than any bot should take, only here so a stuck bot loses instead of hanging the referee
+    private static final long RESPONSE_TIMEOUT_MILLIS = 10_000;
+    private static final String END_OF_OUTPUT = "\u0000";
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    // Seeds noted in Analysis.txt
+    private static final long[] INTERESTING_SEEDS = {-3194626388501203500L, -562798768321121100L, 6812241268562684000L,
+            -4287602355965143600L, 4881395176070566000L, 2855407559329172500L, -1336280831540291300L};
+
+    private enum Type {
+        EMPTY, WALL, A, B, C, D,
+        ROOT(1, 1, 1, 1),
+        BASIC(1, 0, 0, 0),
+        HARVESTER(0, 0, 1, 1),
+        TENTACLE(0, 1, 1, 0),
+        SPORER(0, 1, 0, 1);
+
+        private final int[] cost;
+
+        Type() {
+            this(0, 0, 0, 0);
+        }
+
+        Type(int a, int b, int c, int d) {
+            this.cost = new int[]{a, b, c, d};
+        }
+
+        boolean isProtein() {
+            return ordinal() >= A.ordinal() && ordinal() <= D.ordinal();
+        }
+
+        boolean isOrgan() {
+            return ordinal() >= ROOT.ordinal();
+        }
+
+        int proteinIndex() {
+            return ordinal() - A.ordinal();
+        }
+    }
+
+    private enum Direction {
+        N(0, -1), E(1, 0), S(0, 1), W(-1, 0);
+
+        private final int dx;
+        private final int dy;
+
+        Direction(int dx, int dy) {
+            this.dx = dx;
+            this.dy = dy;
+        }
+    }
+
+    /**
+     * How a game went. Winner is 0 or 1, or -1 for a draw. Turn times are how long each bot took to answer each turn,
+     * and how much CPU its game loop thread used doing it, which stays meaningful when many games share the machine.
+     */
+    record Result(long seed, int turns, int winner, int[] organs, int[] proteins, int[] invalidCommands,
+                  long[][] turnNanos, long[][] turnCpuNanos) {
+        @Override
+        public String toString() {
+            return String.format("seed %d: %s after %d turns, organs %d-%d, proteins %d-%d, invalid commands %d-%d",
+                    seed, winner < 0 ? "draw" : "bot " + winner + " wins", turns, organs[0], organs[1], proteins[0],
+                    proteins[1], invalidCommands[0], invalidCommands[1]);
+        }
+    }
+
+    private final long seed;
+    private final Random random;
+    private int width;
+    private int height;
+    private Type[] types;
+    private int[] owners;
+    private int[] ids;
+    private Direction[] directions;
+    private int[] parentIds;
+    private int[] rootIds;
+    // Organ tiles in the order they grew, so parents always come before their children
+    private final List<Integer> organs = new ArrayList<>();
+    private final int[][] proteins = new int[2][4];
+    private final int[] invalidCommands = new int[2];
+    private int nextId = 1;
+
+    Referee(long seed) {
+        this.seed = seed;
+        this.random = new Random(seed);
+        generateMap();
+    }
+
+    Result play(BiFunction<InputStream, PrintStream, Player> first, BiFunction<InputStream, PrintStream, Player> second) {
+        String initInput = width + " " + height + "\n";
+        Bot[] bots = {new Bot(first, "bot-0", initInput), new Bot(second, "bot-1", initInput)};
+        long[][] turnNanos = new long[2][];
+        long[][] turnCpuNanos = new long[2][];
+        int turn = 0;
+        try {
+            boolean[] lost = new boolean[2];
+            while (turn < MAX_TURNS && !lost[0] && !lost[1] && organCount(0) > 0 && organCount(1) > 0) {
+                turn++;
+                List<List<String>> commands = new ArrayList<>();
+                for (int player = 0; player < 2; player++) {
+                    List<String> lines = bots[player].playTurn(turnInput(player), rootCount(player));
+                    lost[player] = lines == null;
+                    commands.add(lines == null ? List.of() : lines);
+                }
+                resolveTurn(commands);
+            }
+            for (int player = 0; player < 2; player++) {
+                turnNanos[player] = toArray(bots[player].turnNanos);
+                turnCpuNanos[player] = toArray(bots[player].turnCpuNanos);
+            }
+            return result(turn, lost, turnNanos, turnCpuNanos);
+        } finally {
+            for (Bot bot : bots) {
+                bot.close();
+            }
+        }
+    }
+
+    private static long[] toArray(List<Long> values) {
+        return values.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private Result result(int turns, boolean[] lost, long[][] turnNanos, long[][] turnCpuNanos) {
+        int[] organs = {organCount(0), organCount(1)};
+        int[] stock = {Arrays.stream(proteins[0]).sum(), Arrays.stream(proteins[1]).sum()};
+        int winner;
+        if (lost[0] != lost[1]) {
+            winner = lost[0] ? 1 : 0;
+        } else if (organs[0] != organs[1]) {
+            winner = organs[0] > organs[1] ? 0 : 1;
+        } else if (stock[0] != stock[1]) {
+            winner = stock[0] > stock[1] ? 0 : 1;
+        } else {
+            winner = -1;
+        }
+        return new Result(seed, turns, winner, organs, stock, invalidCommands.clone(), turnNanos, turnCpuNanos);
+    }
+
+    // Map generation
+
+    // Maps are point symmetric, player 1's root mirrors player 0's through the center
+    private void generateMap() {
+        width = 18 + random.nextInt(7);
+        height = width / 2;
+        int size = width * height;
+        types = new Type[size];
+        owners = new int[size];
+        ids = new int[size];
+        directions = new Direction[size];
+        parentIds = new int[size];
+        rootIds = new int[size];
+        double wallChance = 0.05 + random.nextDouble() * 0.3;
+        double proteinChance = 0.04 + random.nextDouble() * 0.18;
+        int root;
+        do {
+            for (int i = 0; i <= size / 2; i++) {
+                double roll = random.nextDouble();
+                Type type = roll < wallChance ? Type.WALL
+                        : roll < wallChance + proteinChance ? Type.values()[Type.A.ordinal() + random.nextInt(4)]
+                        : Type.EMPTY;
+                types[i] = type;
+                types[mirror(i)] = type;
+            }
+            root = (1 + random.nextInt(height - 2)) * width + 1 + random.nextInt(width / 4);
+            types[root] = Type.EMPTY;
+            types[mirror(root)] = Type.EMPTY;
+            // Closed maps are fine, but both players need a way to reach each other
+            wallChance *= 0.9;
+        } while (!connected(root, mirror(root)));
+        Arrays.fill(owners, -1);
+        for (int player = 0; player < 2; player++) {
+            Arrays.fill(proteins[player], START_PROTEINS);
+            int tile = player == 0 ? root : mirror(root);
+            addOrgan(tile, player, Type.ROOT, Direction.N, 0);
+        }
+    }
+
+    private int mirror(int index) {
+        return width * height - 1 - index;
+    }
+
+    private boolean connected(int from, int to) {
+        boolean[] seen = new boolean[types.length];
+        Deque<Integer> queue = new ArrayDeque<>(List.of(from));
+        seen[from] = true;
+        while (!queue.isEmpty()) {
+            int index = queue.poll();
+            if (index == to) {
+                return true;
+            }
+            for (Direction direction : Direction.values()) {
+                int next = neighbor(index, direction);
+                if (next >= 0 && !seen[next] && types[next] != Type.WALL) {
+                    seen[next] = true;
+                    queue.add(next);
+                }
+            }
+        }
+        return false;
+    }
+
+    private int neighbor(int index, Direction direction) {
+        int x = index % width + direction.dx;
+        int y = index / width + direction.dy;
+        return x < 0 || y < 0 || x >= width || y >= height ? -1 : y * width + x;
+    }
+
+    // Turn input
+
+    private String turnInput(int player) {
+        StringBuilder entities = new StringBuilder();
+        int count = 0;
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == Type.EMPTY) {
+                continue;
+            }
+            count++;
+            boolean organ = types[i].isOrgan();
+            entities.append(i % width).append(' ').append(i / width).append(' ').append(types[i]).append(' ')
+                    .append(organ ? (owners[i] == player ? 1 : 0) : -1).append(' ')
+                    .append(ids[i]).append(' ')
+                    .append(organ ? directions[i].name() : "X").append(' ')
+                    .append(parentIds[i]).append(' ')
+                    .append(rootIds[i]).append('\n');
+        }
+        StringBuilder input = new StringBuilder().append(count).append('\n').append(entities);
+        for (int owner : new int[]{player, 1 - player}) {
+            input.append(proteins[owner][0]).append(' ').append(proteins[owner][1]).append(' ')
+                    .append(proteins[owner][2]).append(' ').append(proteins[owner][3]).append('\n');
+        }
+        return input.append(rootCount(player)).append('\n').toString();
+    }
+
+    private int organCount(int player) {
+        return (int) organs.stream().filter(index -> owners[index] == player).count();
+    }
+
+    private int rootCount(int player) {
+        return (int) organs.stream().filter(index -> owners[index] == player && types[index] == Type.ROOT).count();
+    }
+
+    // Turn resolution
+
+    private record Growth(int player, int tile, Type type, Direction direction, int parentId, int rootId) {
+    }
+
+    private void resolveTurn(List<List<String>> commands) {
+        List<Growth> growths = new ArrayList<>();
+        for (int player = 0; player < 2; player++) {
+            Set<Integer> actedRoots = new HashSet<>();
+            for (String command : commands.get(player)) {
+                Growth growth = parseCommand(player, command.trim().split(" +"), actedRoots, growths);
+                if (growth == null) {
+                    continue;
+                }
+                for (int i = 0; i < 4; i++) {
+                    proteins[player][i] -= growth.type().cost[i];
+                }
+                growths.add(growth);
+            }
+        }
+
+        // Both players growing onto the same tile leaves a wall there instead
+        Set<Integer> contested = new HashSet<>();
+        for (Growth growth : growths) {
+            if (growth.player() == 1 && growths.stream().anyMatch(other -> other.player() == 0 && other.tile() == growth.tile())) {
+                contested.add(growth.tile());
+            }
+        }
+        for (Growth growth : growths) {
+            int tile = growth.tile();
+            if (contested.contains(tile)) {
+                types[tile] = Type.WALL;
+                continue;
+            }
+            if (types[tile].isProtein()) {
+                proteins[growth.player()][types[tile].proteinIndex()] += ABSORB_PROTEINS;
+            }
+            addOrgan(tile, growth.player(), growth.type(), growth.direction(), growth.parentId());
+            if (growth.type() != Type.ROOT) {
+                rootIds[tile] = growth.rootId();
+            }
+        }
+
+        attack();
+        harvest();
+    }
+
+    // Returns what the command grows, or null if it does nothing
+    private Growth parseCommand(int player, String[] tokens, Set<Integer> actedRoots, List<Growth> growths) {
+        try {
+            if ("WAIT".equals(tokens[0])) {
+                return null;
+            }
+            boolean grow = "GROW".equals(tokens[0]);
+            if (!grow && !"SPORE".equals(tokens[0])) {
+                return invalid(player);
+            }
+            int from = tileOfOrgan(Integer.parseInt(tokens[1]));
+            int x = Integer.parseInt(tokens[2]);
+            int y = Integer.parseInt(tokens[3]);
+            if (from < 0 || owners[from] != player || !actedRoots.add(rootIds[from])
+                    || x < 0 || y < 0 || x >= width || y >= height) {
+                return invalid(player);
+            }
+            int target = y * width + x;
+            Type type;
+            Direction direction = Direction.N;
+            if (grow) {
+                type = Type.valueOf(tokens[4]);
+                if (type == Type.ROOT || !type.isOrgan()) {
+                    return invalid(player);
+                }
+                if (tokens.length > 5 && tokens[5].length() == 1 && "NESW".contains(tokens[5])) {
+                    direction = Direction.valueOf(tokens[5]);
+                }
+                target = growthTile(from, target);
+            } else {
+                type = Type.ROOT;
+                if (types[from] != Type.SPORER || !inSporeLine(from, target)) {
+                    return invalid(player);
+                }
+            }
+            int tile = target;
+            if (tile < 0 || !isFree(tile) || facedByTentacle(tile, 1 - player) || !affordable(player, type)
+                    || growths.stream().anyMatch(growth -> growth.player() == player && growth.tile() == tile)) {
+                return invalid(player);
+            }
+            return new Growth(player, tile, type, direction, type == Type.ROOT ? 0 : ids[from], rootIds[from]);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return invalid(player);
+        }
+    }
+
+    private Growth invalid(int player) {
+        invalidCommands[player]++;
+        return null;
+    }
+
+    private int tileOfOrgan(int id) {
+        for (int index : organs) {
+            if (ids[index] == id) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isFree(int tile) {
+        return types[tile] == Type.EMPTY || types[tile].isProtein();
+    }
+
+    private boolean affordable(int player, Type type) {
+        for (int i = 0; i < 4; i++) {
+            if (proteins[player][i] < type.cost[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Grows next to the organ, on the first step of the shortest path when the target is further away
+    private int growthTile(int from, int target) {
+        if (!isFree(target)) {
+            return -1;
+        }
+        int[] firstStep = new int[types.length];
+        Arrays.fill(firstStep, -1);
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (Direction direction : Direction.values()) {
+            int next = neighbor(from, direction);
+            if (next >= 0 && isFree(next)) {
+                firstStep[next] = next;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int index = queue.poll();
+            if (index == target) {
+                return firstStep[index];
+            }
+            for (Direction direction : Direction.values()) {
+                int next = neighbor(index, direction);
+                if (next >= 0 && firstStep[next] < 0 && isFree(next)) {
+                    firstStep[next] = firstStep[index];
+                    queue.add(next);
+                }
+            }
+        }
+        return -1;
+    }
+
+    private boolean inSporeLine(int sporer, int target) {
+        for (int index = neighbor(sporer, directions[sporer]); index >= 0 && isFree(index);
+             index = neighbor(index, directions[sporer])) {
+            if (index == target) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean facedByTentacle(int tile, int owner) {
+        for (Direction direction : Direction.values()) {
+            int next = neighbor(tile, direction);
+            if (next >= 0 && types[next] == Type.TENTACLE && owners[next] == owner
+                    && neighbor(next, directions[next]) == tile) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addOrgan(int tile, int owner, Type type, Direction direction, int parentId) {
+        int id = nextId++;
+        types[tile] = type;
+        owners[tile] = owner;
+        ids[tile] = id;
+        directions[tile] = direction;
+        parentIds[tile] = parentId;
+        rootIds[tile] = id;
+        organs.add(tile);
+    }
+
+    // Tentacles kill the enemy organ they face, along with everything that grew from it
+    private void attack() {
+        Set<Integer> deadIds = new HashSet<>();
+        for (int index : organs) {
+            if (types[index] == Type.TENTACLE) {
+                int target = neighbor(index, directions[index]);
+                if (target >= 0 && types[target].isOrgan() && owners[target] != owners[index]) {
+                    deadIds.add(ids[target]);
+                }
+            }
+        }
+        if (deadIds.isEmpty()) {
+            return;
+        }
+        Iterator<Integer> organIterator = organs.iterator();
+        while (organIterator.hasNext()) {
+            int index = organIterator.next();
+            if (deadIds.contains(ids[index]) || deadIds.contains(parentIds[index])) {
+                deadIds.add(ids[index]);
+                types[index] = Type.EMPTY;
+                owners[index] = -1;
+                ids[index] = 0;
+                parentIds[index] = 0;
+                rootIds[index] = 0;
+                organIterator.remove();
+            }
+        }
+    }
+
+    // Each protein tile a player's harvesters face pays that player once per turn
+    private void harvest() {
+        for (int player = 0; player < 2; player++) {
+            Set<Integer> harvested = new HashSet<>();
+            for (int index : organs) {
+                if (types[index] == Type.HARVESTER && owners[index] == player) {
+                    int target = neighbor(index, directions[index]);
+                    if (target >= 0 && types[target].isProtein() && harvested.add(target)) {
+                        proteins[player][types[target].proteinIndex()]++;
+                    }
+                }
+            }
+        }
+    }
+
+    // Bot plumbing
+
+    private static class Bot {
+        private final PipedOutputStream input = new PipedOutputStream();
+        private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        private final List<Long> turnNanos = new ArrayList<>();
+        private final List<Long> turnCpuNanos = new ArrayList<>();
+        private final Thread thread;
+
+        Bot(BiFunction<InputStream, PrintStream, Player> factory, String name, String initInput) {
+            PipedInputStream botInput;
+            try {
+                botInput = new PipedInputStream(input, 1 << 16);
+                send(initInput);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            PrintStream botOutput = new PrintStream(new LineOutputStream(lines), false, StandardCharsets.UTF_8);
+            thread = new Thread(() -> {
+                try {
+                    factory.apply(botInput, botOutput).start();
+                } finally {
+                    lines.add(END_OF_OUTPUT);
+                }
+            }, name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void send(String text) throws IOException {
+            input.write(text.getBytes(StandardCharsets.UTF_8));
+            input.flush();
+        }
+
+        // Returns the bot's commands, or null if it crashed or stopped answering
+        List<String> playTurn(String turnInput, int commandCount) {
+            long start = System.nanoTime();
+            long cpuStart = THREADS.getThreadCpuTime(thread.getId());
+            List<String> commands = new ArrayList<>();
+            try {
+                send(turnInput);
+                while (commands.size() < commandCount) {
+                    String line = lines.poll(RESPONSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                    if (line == null || line.equals(END_OF_OUTPUT)) {
+                        return null;
+                    }
+                    commands.add(line);
+                }
+            } catch (IOException e) {
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            turnNanos.add(System.nanoTime() - start);
+            turnCpuNanos.add(THREADS.getThreadCpuTime(thread.getId()) - cpuStart);
+            return commands;
+        }
+
+        void close() {
+            try {
+                input.close();
+                thread.join(RESPONSE_TIMEOUT_MILLIS);
+            } catch (IOException ignored) {
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Hands each line the bot prints to the referee
+    private static class LineOutputStream extends OutputStream {
+        private final BlockingQueue<String> lines;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+        LineOutputStream(BlockingQueue<String> lines) {
+            this.lines = lines;
+        }
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines.add(line.toString(StandardCharsets.UTF_8));
+                line.reset();
+            } else if (b != '\r') {
+                line.write(b);
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        long[] seeds = args.length > 0 ? Arrays.stream(args).mapToLong(Long::parseLong).toArray() : INTERESTING_SEEDS;
+        // The bots' debug goes to stderr, keep the results readable
+        PrintStream report = System.out;
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+        for (long seed : seeds) {
+            long start = System.nanoTime();
+            Result result = new Referee(seed).play(Player::new, Player::new);
+            report.printf("%s (%.0fms)%n", result, (System.nanoTime() - start) / 1e6);
+        }
+    }
+}
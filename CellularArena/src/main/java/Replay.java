@@ -0,0 +1,108 @@
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Plays games saved by Recorder back through the bot and reports how long each turn took, then a summary
+ * of the bot's profiler spans over all the games. Add -DsampleSpans=true to count allocation and GCs per span too, at
+ * the cost of slower turns.
+ * Not part of the submission, run with: java -cp target/classes Replay game1.txt [game2.txt ...]
+ */
+class Replay {
+    private static final long TURN_LIMIT_NANOS = 50_000_000L;
+    private static final long FIRST_TURN_LIMIT_NANOS = 1_000_000_000L;
+    // Turns 1 and 2 run before the JIT has compiled the bot. Every game replays in this JVM, so after the first game
+    // they run warm and would understate a real game's. Later games leave them out of the report and the spans.
+    private static final int COLD_TURNS = 2;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: Replay <recorded game>...");
+            System.exit(1);
+        }
+        // The bot's own debug goes to stderr, keep the report readable
+        PrintStream report = System.out;
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+
+        List<Long> allTurns = new ArrayList<>();
+        SpanHistograms spans = new SpanHistograms(Boolean.getBoolean("sampleSpans"));
+        for (int game = 0; game < args.length; game++) {
+            byte[] recorded;
+            try (InputStream in = new FileInputStream(args[game])) {
+                recorded = in.readAllBytes();
+            }
+            int firstTurn = game == 0 ? 0 : COLD_TURNS;
+            List<Long> turnNanos = replay(recorded, spans, firstTurn);
+            List<Long> reported = turnNanos.subList(Math.min(firstTurn, turnNanos.size()), turnNanos.size());
+            report.println(args[game] + ": " + turnNanos.size() + " turns, " + (firstTurn > 0 ? "turns 1-" + firstTurn
+                    + " ran warm and are left out, " : "") + summary(reported));
+            for (int i = firstTurn; i < turnNanos.size(); i++) {
+                long limit = i == 0 ? FIRST_TURN_LIMIT_NANOS : TURN_LIMIT_NANOS;
+                if (turnNanos.get(i) > limit) {
+                    report.printf("  turn %d took %.1fms%n", i + 1, turnNanos.get(i) / 1e6);
+                }
+            }
+            allTurns.addAll(reported);
+        }
+        if (args.length > 1) {
+            report.println("All games: " + allTurns.size() + " turns, " + summary(allTurns));
+        }
+        spans.printSummary(report);
+    }
+
+    // A turn ends when the bot flushes its commands, and the next one starts right after since the input is already
+    // in memory, so the gaps between flushes are the turn times. Spans of turns before firstTurn aren't recorded.
+    private static List<Long> replay(byte[] recorded, SpanHistograms spans, int firstTurn) {
+        List<Long> turnNanos = new ArrayList<>();
+        long[] turnStart = {System.nanoTime()};
+        PrintStream output = new PrintStream(OutputStream.nullOutputStream()) {
+            @Override
+            public void flush() {
+                long now = System.nanoTime();
+                turnNanos.add(now - turnStart[0]);
+                turnStart[0] = now;
+            }
+        };
+        Player player = new Player(new ByteArrayInputStream(recorded), output);
+        player.setSpanListener(new Player.SpanListener() {
+            @Override
+            public void started(String name, int depth) {
+                if (turnNanos.size() >= firstTurn) {
+                    spans.started(name, depth);
+                }
+            }
+
+            @Override
+            public void ended(String name, int depth, long nanos) {
+                if (turnNanos.size() >= firstTurn) {
+                    spans.ended(name, depth, nanos);
+                }
+            }
+
+            @Override
+            public void skipped(String name, int depth) {
+                if (turnNanos.size() >= firstTurn) {
+                    spans.skipped(name, depth);
+                }
+            }
+        });
+        player.start();
+        return turnNanos;
+    }
+
+    static String summary(List<Long> turnNanos) {
+        if (turnNanos.isEmpty()) {
+            return "no turns played";
+        }
+        long[] sorted = turnNanos.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return String.format("p50 %.1fms, p99 %.1fms, max %.1fms",
+                percentile(sorted, 50) / 1e6, percentile(sorted, 99) / 1e6, sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+}
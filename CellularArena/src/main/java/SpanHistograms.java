@@ -0,0 +1,136 @@
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps a histogram per profiler span across games, so a summary can show percentiles and not just the last turn.
+ * Listens to Player's profiler, which only times spans. Kept out of the submission to save it the space and the work,
+ * along with sampling the allocation and GCs of each span.
+ */
+class SpanHistograms implements Player.SpanListener {
+    // Log-linear buckets, 8 per power of two, so any duration lands in a bucket within 12.5% of it
+    private static final int SUB_BUCKET_BITS = 3;
+
+    // Sorted by path, so each span follows its parent
+    private final Map<String, Histogram> spans = new TreeMap<>();
+    // Polling the collectors at every behavior slows the turns being timed, so allocation and GCs are only read when asked
+    private final boolean sampling;
+    private final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    // Path of the open span at each depth, its name after its parents', for example "Turn > Root > [Attack Behavior]"
+    private final List<String> paths = new ArrayList<>();
+    private final Map<String, Map<String, String>> childPaths = new HashMap<>();
+    // Allocated bytes, GC count and GC millis when the open span at each depth started
+    private final List<long[]> starts = new ArrayList<>();
+    private final long[] end = new long[3];
+
+    SpanHistograms(boolean sampling) {
+        this.sampling = sampling;
+    }
+
+    private static class Histogram {
+        private final int depth;
+        private final long[] buckets = new long[64 << SUB_BUCKET_BITS];
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        private long allocatedBytes;
+        private long gcCount;
+        private long gcMillis;
+        private int skipped;
+
+        Histogram(int depth) {
+            this.depth = depth;
+        }
+
+        // Upper edge of the bucket the percentile falls in, never more than the real max
+        long percentile(double percentile) {
+            long target = (long) Math.ceil(percentile * count);
+            long seen = 0;
+            for (int bucket = 0; bucket < buckets.length; bucket++) {
+                seen += buckets[bucket];
+                if (seen >= target && seen > 0) {
+                    int octave = bucket >> SUB_BUCKET_BITS;
+                    long subBucket = bucket & ((1 << SUB_BUCKET_BITS) - 1);
+                    long upper = ((1L << SUB_BUCKET_BITS) + subBucket + 1) << octave >> SUB_BUCKET_BITS;
+                    return Math.min(upper, maxNanos);
+                }
+            }
+            return 0;
+        }
+    }
+
+    private static int bucket(long nanos) {
+        int octave = 63 - Long.numberOfLeadingZeros(nanos);
+        int shift = octave - SUB_BUCKET_BITS;
+        long mantissa = shift >= 0 ? nanos >> shift : nanos << -shift;
+        return octave << SUB_BUCKET_BITS | (int) (mantissa & ((1 << SUB_BUCKET_BITS) - 1));
+    }
+
+    private void sample(long[] into) {
+        into[0] = threads.getCurrentThreadAllocatedBytes();
+        into[1] = into[2] = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            into[1] += Math.max(collector.getCollectionCount(), 0);
+            into[2] += Math.max(collector.getCollectionTime(), 0);
+        }
+    }
+
+    // Paths are made once per parent and name, so building them doesn't add to the allocation of the spans sampled
+    private String path(String name, int depth) {
+        String parent = depth == 1 ? "" : paths.get(depth - 2);
+        Map<String, String> children = childPaths.computeIfAbsent(parent, p -> new HashMap<>());
+        String path = children.get(name);
+        if (path == null) {
+            path = depth == 1 ? name : parent + " > " + name;
+            children.put(name, path);
+        }
+        return path;
+    }
+
+    @Override
+    public void started(String name, int depth) {
+        while (paths.size() < depth) {
+            paths.add(null);
+            starts.add(new long[3]);
+        }
+        paths.set(depth - 1, path(name, depth));
+        if (sampling) {
+            sample(starts.get(depth - 1));
+        }
+    }
+
+    @Override
+    public void ended(String name, int depth, long nanos) {
+        Histogram histogram = spans.computeIfAbsent(paths.get(depth - 1), p -> new Histogram(depth));
+        histogram.count++;
+        histogram.totalNanos += nanos;
+        histogram.maxNanos = Math.max(histogram.maxNanos, nanos);
+        histogram.buckets[bucket(Math.max(nanos, 1))]++;
+        if (sampling) {
+            long[] start = starts.get(depth - 1);
+            sample(end);
+            histogram.allocatedBytes += end[0] - start[0];
+            histogram.gcCount += end[1] - start[1];
+            histogram.gcMillis += end[2] - start[2];
+        }
+    }
+
+    @Override
+    public void skipped(String name, int depth) {
+        spans.computeIfAbsent(path(name, depth), p -> new Histogram(depth)).skipped++;
+    }
+
+    void printSummary(PrintStream out) {
+        out.println("Spans (count, total, p50, p99, max, allocated, GCs, GC time, skipped):");
+        spans.forEach((path, span) -> out.printf("%s%s: %d, %.1fms, %.3fms, %.3fms, %.3fms, %dKB, %d, %dms, %d%n",
+                "  ".repeat(span.depth), path.substring(path.lastIndexOf('>') + 1).trim(), span.count,
+                span.totalNanos / 1e6, span.percentile(.5) / 1e6, span.percentile(.99) / 1e6, span.maxNanos / 1e6,
+                span.allocatedBytes >> 10, span.gcCount, span.gcMillis, span.skipped));
+    }
+}